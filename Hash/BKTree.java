@@ -0,0 +1,148 @@
+import java.util.*;
+
+/** Burkhard-Keller tree over the dictionary words.
+ * <p>
+ * Each child hangs off its parent under its edit distance to the parent's
+ * word. By the triangle inequality, the words within k of a query can only
+ * be below children whose distance to a visited node lies within k of the
+ * query's own distance to that node, so whole subtrees are skipped without
+ * being compared.
+ */
+public class BKTree implements SuggestionEngine {
+
+    private static final long SHUFFLE_SEED = 1; //Seed of the insertion order of addAll
+
+    private final int maxDistance; //Largest edit distance of a suggestion
+    private Node root; //Root of the tree, null if empty
+    private int nelems; //Number of words in the tree
+    private long comparisons; //Number of distances computed by suggest
+
+    /** Node of the tree holding one word. */
+    private static class Node {
+        final String word;
+        Node[] children; //children[d] is the child at distance d, null if none
+
+        Node(String word){
+            this.word = word;
+        }
+    }
+
+    /**
+     * Constructor for an empty tree
+     * @param maxDistance largest edit distance of a suggestion, at least 1
+     * @throws IllegalArgumentException if maxDistance is out of range
+     */
+    public BKTree(int maxDistance) throws IllegalArgumentException{
+        if (maxDistance < 1)
+            throw new IllegalArgumentException();
+        this.maxDistance = maxDistance;
+    }
+
+    /** Add a dictionary word.
+     * @param word word to add
+     */
+    @Override
+    public void add(String word){
+        if (root == null){
+            root = new Node(word);
+            nelems++;
+            return;
+        }
+        Node node = root;
+        while (true){
+            int d = EditDistance.damerauLevenshtein(word, node.word);
+            if (d == 0)
+                return;
+            if (node.children == null || node.children.length <= d)
+                node.children = Arrays.copyOf((node.children == null) ? new Node[0] : node.children, d + 1);
+            if (node.children[d] == null){
+                node.children[d] = new Node(word);
+                nelems++;
+                return;
+            }
+            node = node.children[d];
+        }
+    }
+
+    /** Add every word of the collection in a shuffled order.
+     * Sorted input, as read from most dictionary files, builds a deep and
+     * unbalanced tree that suggest has to walk far into. The seed is fixed
+     * so that the same words always build the same tree.
+     * @param words distinct dictionary words
+     */
+    @Override
+    public void addAll(Collection<String> words){
+        List<String> shuffled = new ArrayList<String>(words);
+        Collections.shuffle(shuffled, new Random(SHUFFLE_SEED));
+        for (String word : shuffled)
+            add(word);
+    }
+
+    /** Find the dictionary words within maxDistance edits of the query.
+     * @param word query word
+     * @return the words, closest first and alphabetically within a distance;
+     *         includes the word itself if it was added
+     */
+    @Override
+    public String[] suggest(String word){
+        List<List<String>> byDistance = new ArrayList<List<String>>(maxDistance + 1);
+        for (int d = 0; d <= maxDistance; d++)
+            byDistance.add(new ArrayList<String>());
+        Deque<Node> stack = new ArrayDeque<Node>();
+        if (root != null)
+            stack.push(root);
+        while (!stack.isEmpty()){
+            Node node = stack.pop();
+            comparisons++;
+            int d = EditDistance.damerauLevenshtein(word, node.word);
+            if (d <= maxDistance){
+                byDistance.get(d).add(node.word);
+            }
+            if (node.children == null)
+                continue;
+            int hi = Math.min(node.children.length - 1, d + maxDistance);
+            for (int i = Math.max(1, d - maxDistance); i <= hi; i++){
+                if (node.children[i] != null)
+                    stack.push(node.children[i]);
+            }
+        }
+        List<String> suggestions = new ArrayList<String>();
+        for (List<String> words : byDistance){
+            Collections.sort(words);
+            suggestions.addAll(words);
+        }
+        return suggestions.toArray(new String[suggestions.size()]);
+    }
+
+    /** Largest edit distance of a suggestion
+     * @return the maximum distance
+     */
+    @Override
+    public int getMaxDistance(){
+        return maxDistance;
+    }
+
+    /** Getter method for statistics
+     * @return number of distances computed by suggest
+     */
+    public long getComparisons(){
+        return comparisons;
+    }
+
+    /** Getter method for testing
+     * @return number of words in the tree
+     */
+    public int getSize(){
+        return nelems;
+    }
+
+    public static void main(String[] args){
+        BKTree tester = new BKTree(2);
+        String[] words = {"hello", "help", "hell", "shell", "world", "word", "sword"};
+        tester.addAll(Arrays.asList(words));
+        System.out.println("Words: " + tester.getSize());
+        for (String query : new String[]{"helo", "wrld", "hellp", "xyz"})
+            System.out.println(query + ": " + Arrays.toString(tester.suggest(query)));
+        System.out.println("Comparisons: " + tester.getComparisons());
+    }
+}
@@ -0,0 +1,145 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Blocked Bloom filter over words.
+ * <p>
+ * mightContain never returns false for a word that was added, and returns
+ * true for a word that was not added with roughly the configured probability.
+ * All bits of a word fall into one 512-bit block, i.e. one cache line, so a
+ * check costs one hash and one memory access. Confining the bits to a block
+ * raises the false positive rate slightly above that of a plain Bloom filter
+ * of the same size.
+ */
+public class BloomFilter {
+
+    private static final int BLOCK_LONGS = 8; //512 bits per block
+    private static final int BLOCK_BITS = BLOCK_LONGS * 64;
+
+    private final long[] bits; //Blocks, back to back
+    private final int blocks; //Number of blocks
+    private final int hashes; //Number of bits set per word
+    private final int seed; //Per-filter hash seed
+
+    /**
+     * Constructor for an empty filter
+     * @param expectedInsertions number of words that will be added
+     * @param fpp wanted false positive rate, between 0 and 1 exclusive
+     * @throws IllegalArgumentException if expectedInsertions is negative or fpp is out of range
+     */
+    public BloomFilter(int expectedInsertions, double fpp) throws IllegalArgumentException{
+        if (expectedInsertions < 0 || !(fpp > 0 && fpp < 1))
+            throw new IllegalArgumentException();
+        double ln2 = Math.log(2);
+        long m = (long)Math.ceil(-Math.max(1, expectedInsertions) * Math.log(fpp) / (ln2 * ln2));
+        blocks = (int)Math.min(Integer.MAX_VALUE / BLOCK_LONGS, Math.max(1, (m + BLOCK_BITS - 1) / BLOCK_BITS));
+        bits = new long[blocks * BLOCK_LONGS];
+        hashes = Math.max(1, Math.min(16, (int)Math.round((double)m / Math.max(1, expectedInsertions) * ln2)));
+        seed = ThreadLocalRandom.current().nextInt();
+    }
+
+    /** Add a word.
+     * @param value word to add
+     */
+    public void add(String value){
+        long hash = hashFunction(value);
+        int base = block(hash);
+        int h2 = (int)hash;
+        int h3 = step(hash);
+        for (int i = 0; i < hashes; i++){
+            int bit = (h2 + i * h3) & (BLOCK_BITS - 1);
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /** Check whether a word may have been added.
+     * @param value word to check
+     * @return false if the word was certainly not added
+     */
+    public boolean mightContain(String value){
+        long hash = hashFunction(value);
+        int base = block(hash);
+        int h2 = (int)hash;
+        int h3 = step(hash);
+        for (int i = 0; i < hashes; i++){
+            int bit = (h2 + i * h3) & (BLOCK_BITS - 1);
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /** Check whether the characters buf[off..off+len) may have been added as a word.
+     * @param buf characters to check
+     * @param off index of the first character
+     * @param len number of characters
+     * @return false if the word was certainly not added
+     */
+    public boolean mightContain(char[] buf, int off, int len){
+        long hash = spread(StandardHashStrategy.MURMUR3.hash(buf, off, len, seed));
+        int base = block(hash);
+        int h2 = (int)hash;
+        int h3 = step(hash);
+        for (int i = 0; i < hashes; i++){
+            int bit = (h2 + i * h3) & (BLOCK_BITS - 1);
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /** Getter method for testing
+     * @return size of the filter in bits
+     */
+    public long getBitSize(){
+        return (long)bits.length * 64;
+    }
+
+    /** Index of the first long of the block a hash falls in.
+     * @param hash 64-bit hash of a word
+     * @return array index
+     */
+    private int block(long hash){
+        return (int)(((hash >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+    }
+
+    /** Step between the bits of a word inside its block, derived
+     * independently of the block index.
+     * @param hash 64-bit hash of a word
+     * @return odd step
+     */
+    private static int step(long hash){
+        return (int)((hash * 0xC2B2AE3D27D4EB4FL) >>> 32) | 1;
+    }
+
+    /** Hash function for words.
+     * @param value The input String value
+     * @return 64-bit hash; the high half picks the block, both halves pick bits
+     */
+    private long hashFunction(String value){
+        return spread(StandardHashStrategy.MURMUR3.hash(value, seed));
+    }
+
+    /** Spread a 32-bit word hash over 64 bits.
+     * @param hash 32-bit hash
+     * @return 64-bit hash
+     */
+    private static long spread(int hash){
+        long spread = (hash & 0xffffffffL) * 0x9E3779B97F4A7C15L;
+        return spread ^ (spread >>> 29);
+    }
+
+    public static void main(String[] args){
+        BloomFilter tester = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++)
+            tester.add("word" + i);
+        boolean all = true;
+        for (int i = 0; i < 10000; i++)
+            all &= tester.mightContain("word" + i);
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++){
+            if (tester.mightContain("absent" + i))
+                falsePositives++;
+        }
+        System.out.println("Bits: " + tester.getBitSize() + ", every added word passes: " + all);
+        System.out.println("False positive rate: " + falsePositives / 100000.0 + " (asked for 0.01)");
+    }
+}
@@ -0,0 +1,23 @@
+/** Helpers to compare words with characters of an array without creating Strings. */
+final class Chars {
+
+    private Chars(){
+    }
+
+    /** Compare a String with characters of an array.
+     * @param value String to compare
+     * @param buf characters to compare
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if value consists of exactly those characters
+     */
+    static boolean regionEquals(String value, char[] buf, int off, int len){
+        if (value.length() != len)
+            return false;
+        for (int i = 0; i < len; i++){
+            if (value.charAt(i) != buf[off + i])
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,313 @@
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Hash table that stores its words as UTF-8 bytes packed in one byte array.
+ * <p>
+ * The index is three flat int arrays (arena offset, byte length and hash per
+ * slot) probed linearly, so a word costs its encoded bytes plus 12 bytes per
+ * slot instead of a String, its char array and a LinkedList node. Lookups
+ * compare the probe against the arena bytes directly and never create a
+ * String. Deleted words leave garbage in the arena that is squeezed out when
+ * the arena would otherwise have to grow, or by compact().
+ */
+public class CompactHashTable implements IHashTable {
+
+    private static final double MAX_LOAD = 0.75;  //Load factor to tell when to expand
+
+    private int nelems;  //Number of element stored in the hash table
+    private int mask; //Number of slots - 1. Number of slots is always a power of two.
+    private int[] offsets; //Arena offset of the word in each slot, -1 for an empty slot
+    private int[] lengths; //Byte length of the word in each slot
+    private int[] hashes; //Hash of the word in each slot
+    private byte[] arena; //UTF-8 bytes of all words
+    private ByteBuffer arenaView; //Wrapper over arena for Utf8.equals
+    private int arenaSize; //Number of arena bytes in use, including garbage
+    private int garbage; //Number of arena bytes belonging to deleted words
+    private final int seed; //Per-table hash seed
+
+    /**
+     * Constructor for hash table
+     * @param Initial size of the hash table
+     */
+    public CompactHashTable(int size) throws IllegalArgumentException{
+        if (size <= 0 )
+            throw new IllegalArgumentException();
+        int capacity = Integer.highestOneBit(size);
+        allocate((capacity < size) ? capacity << 1 : capacity);
+        setArena(new byte[Math.max(16, size * 8)]);
+        seed = ThreadLocalRandom.current().nextInt();
+    }
+
+    /** Insert the value.
+     * @param value to insert
+     * @return true if item has been inserted, false if there already exists the same item.
+     */
+    @Override
+    public boolean insert(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hashFunction(value);
+        if (indexOf(value, hash) >= 0)
+            return false;
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        reserve(bytes.length);
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        if (nelems + 1 > MAX_LOAD * (mask + 1))
+            rehash((mask + 1) * 2);
+        place(arenaSize, bytes.length, hash);
+        arenaSize += bytes.length;
+        nelems++;
+        return true;
+    }
+
+    /** Delete the value.
+     * Later slots of the same cluster are shifted back into the gap, so no tombstones are needed.
+     * @param value to delete
+     * @return true if item has been deleted, false if there is no such item.
+     */
+    @Override
+    public boolean delete(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int i = indexOf(value, hashFunction(value));
+        if (i < 0)
+            return false;
+        garbage += lengths[i];
+
+        // Backward shift
+        int j = i;
+        while (true){
+            j = (j + 1) & mask;
+            if (offsets[j] < 0)
+                break;
+            // Move j into the gap unless the gap lies before its home slot
+            if (((j - hashes[j]) & mask) >= ((j - i) & mask)){
+                offsets[i] = offsets[j];
+                lengths[i] = lengths[j];
+                hashes[i] = hashes[j];
+                i = j;
+            }
+        }
+        offsets[i] = -1;
+        nelems--;
+        return true;
+    }
+
+    /** Determine if element exists in the table.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        return indexOf(value, hashFunction(value)) >= 0;
+    }
+
+    /** Determine if the characters buf[off..off+len) form an element of the table.
+     * @param buf characters to look up
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        return indexOf(CharBuffer.wrap(buf, off, len), StandardHashStrategy.MURMUR3.hash(buf, off, len, seed)) >= 0;
+    }
+
+    /** Print out the hash table */
+    @Override
+    public void printTable() {
+        for (int i = 0; i <= mask; i++){
+            System.out.print(i+": ");
+            if (offsets[i] < 0)
+                System.out.println();
+            else
+                System.out.println(new String(arena, offsets[i], lengths[i], StandardCharsets.UTF_8));
+        }
+    }
+
+    /** The number of elements currently store in the table.
+     * @return int the number of elements
+     */
+    @Override
+    public int getSize() {
+        return nelems;
+    }
+
+    /** Iterate over a copy of the elements in slot order, decoded from the arena,
+     * so the table may be modified while iterating.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        List<String> words = new ArrayList<String>(nelems);
+        for (int i = 0; i <= mask; i++){
+            if (offsets[i] >= 0)
+                words.add(new String(arena, offsets[i], lengths[i], StandardCharsets.UTF_8));
+        }
+        return Collections.unmodifiableList(words).iterator();
+    }
+
+    /** Expand the table once so that it holds the given number of
+     * elements without going over the load factor.
+     * @param expectedSize number of elements the table should hold
+     */
+    @Override
+    public void ensureCapacity(int expectedSize){
+        int capacity = mask + 1;
+        while (capacity < (1 << 30) && expectedSize > MAX_LOAD * capacity)
+            capacity <<= 1;
+        if (capacity > mask + 1)
+            rehash(capacity);
+    }
+
+    /** Squeeze the bytes of deleted words out of the arena and
+     * shrink the arena to the bytes in use. */
+    public void compact(){
+        byte[] packed = new byte[Math.max(16, arenaSize - garbage)];
+        int size = 0;
+        for (int i = 0; i <= mask; i++){
+            if (offsets[i] >= 0){
+                System.arraycopy(arena, offsets[i], packed, size, lengths[i]);
+                offsets[i] = size;
+                size += lengths[i];
+            }
+        }
+        setArena(packed);
+        arenaSize = size;
+        garbage = 0;
+    }
+
+    /** Find the slot holding the value.
+     * @param value value to look for
+     * @param hash hash of the value
+     * @return the slot index, -1 if no such value exists.
+     */
+    private int indexOf(CharSequence value, int hash){
+        for (int i = hash & mask; offsets[i] >= 0; i = (i + 1) & mask){
+            if (hashes[i] == hash && Utf8.equals(value, arenaView, offsets[i], lengths[i]))
+                return i;
+        }
+        return -1;
+    }
+
+    /** Put a word whose bytes are already in the arena into the first free slot.
+     * @param offset arena offset of the word
+     * @param length byte length of the word
+     * @param hash hash of the word
+     */
+    private void place(int offset, int length, int hash){
+        int i = hash & mask;
+        while (offsets[i] >= 0)
+            i = (i + 1) & mask;
+        offsets[i] = offset;
+        lengths[i] = length;
+        hashes[i] = hash;
+    }
+
+    /** Make room for the given number of bytes at the end of the arena,
+     * compacting instead of growing when at least half of it is garbage.
+     * @param length number of bytes needed
+     */
+    private void reserve(int length){
+        if (arenaSize + length <= arena.length)
+            return;
+        if (garbage >= arenaSize / 2)
+            compact();
+        if (arenaSize + length > arena.length){
+            long grown = Math.max((long)arena.length * 2, (long)arenaSize + length);
+            if (grown > Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("Arena full");
+            byte[] bigger = new byte[(int)grown];
+            System.arraycopy(arena, 0, bigger, 0, arenaSize);
+            setArena(bigger);
+        }
+    }
+
+    /** Rehash the index into the given number of slots. The arena is not touched.
+     * @param capacity number of slots, a power of two
+     */
+    private void rehash(int capacity){
+        int[] oldOffsets = offsets;
+        int[] oldLengths = lengths;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        for (int i = 0; i < oldOffsets.length; i++){
+            if (oldOffsets[i] >= 0)
+                place(oldOffsets[i], oldLengths[i], oldHashes[i]);
+        }
+    }
+
+    /** Allocate an empty index.
+     * @param capacity number of slots, a power of two
+     */
+    private void allocate(int capacity){
+        offsets = new int[capacity];
+        lengths = new int[capacity];
+        hashes = new int[capacity];
+        Arrays.fill(offsets, -1);
+        mask = capacity - 1;
+    }
+
+    /** Replace the arena array.
+     * @param bytes new arena
+     */
+    private void setArena(byte[] bytes){
+        arena = bytes;
+        arenaView = ByteBuffer.wrap(bytes);
+    }
+
+    /** Hash function to assign key to each element.
+     * Hashes the characters, so the hash of a probe is computed without encoding it.
+     * @param value The input String value
+     * @return Hash of the value; the home slot is hash & mask
+     */
+    private int hashFunction(String value){
+        return StandardHashStrategy.MURMUR3.hash(value, seed);
+    }
+
+    /** Getter method for testing
+     * @return number of slots
+     */
+    public int getBuckets(){
+        return mask + 1;
+    }
+
+    /** Getter method for testing
+     * @return number of arena bytes in use, including garbage
+     */
+    public int getArenaSize(){
+        return arenaSize;
+    }
+
+    public static void main(String[] args){
+        CompactHashTable tester = new CompactHashTable(1);
+        String[] words = {"apple", "caf\u00e9", "na\u00efve", "\u65e5\u672c", "zebra"};
+        for (String word : words)
+            tester.insert(word);
+        tester.printTable();
+        System.out.println("Arena bytes: " + tester.getArenaSize());
+
+        // Deleted words stay in the arena until compact
+        tester.delete("apple");
+        tester.delete("zebra");
+        System.out.println("Arena bytes after deletes: " + tester.getArenaSize());
+        tester.compact();
+        System.out.println("Arena bytes after compact: " + tester.getArenaSize());
+        char[] buf = "a caf\u00e9 b".toCharArray();
+        System.out.println("Contains caf\u00e9 from a char[]: " + tester.contains(buf, 2, 4)
+                + ", contains apple: " + tester.contains("apple"));
+        tester.printTable();
+    }
+}
@@ -0,0 +1,414 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** Thread-safe hash table that can be shared by any number of threads.
+ * <p>
+ * contains never blocks: bins hold immutable chains that are replaced as a
+ * whole, so a reader always walks a consistent chain. insert and delete lock
+ * only the head node of the bin they change; an empty bin is claimed with a
+ * compare-and-set. When the table expands, every writer that runs into a bin
+ * that has already been moved helps move the remaining bins in strides, and
+ * readers simply follow the moved bin into the new table.
+ */
+public class ConcurrentHashTable implements IHashTable {
+
+    private static final double MAX_LOAD = 0.75;  //Load factor to tell when to expand
+    private static final int TRANSFER_STRIDE = 16;  //Number of bins a thread claims at once while expanding
+
+    private volatile AtomicReferenceArray<Node> table; //Array of immutable chains, power of two length
+    private volatile Resize resize; //Expansion in progress, null if none
+    private final AtomicBoolean resizing = new AtomicBoolean(); //Guards the start of an expansion
+    private final AtomicInteger nelems = new AtomicInteger(); //Number of element stored in the hash table
+
+    /** Element of a chain. Never modified once published. */
+    static class Node {
+        final int hash;
+        final String value;
+        final Node next;
+
+        Node(int hash, String value, Node next){
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /** Placeholder left in a bin of the old table after it has been moved. */
+    static final class ForwardingNode extends Node {
+        final Resize resize;
+
+        ForwardingNode(Resize resize){
+            super(0, null, null);
+            this.resize = resize;
+        }
+    }
+
+    /** State of one expansion, shared by all threads that help with it. */
+    static final class Resize {
+        final AtomicReferenceArray<Node> from;
+        final AtomicReferenceArray<Node> to;
+        final ForwardingNode forward;
+        final AtomicInteger nextBin; //Bins below this index are not yet claimed
+        final AtomicInteger moved = new AtomicInteger(); //Number of bins moved so far
+
+        Resize(AtomicReferenceArray<Node> from){
+            this.from = from;
+            this.to = new AtomicReferenceArray<Node>(from.length() * 2);
+            this.forward = new ForwardingNode(this);
+            this.nextBin = new AtomicInteger(from.length());
+        }
+    }
+
+    /**
+     * Constructor for hash table
+     * @param Initial size of the hash table
+     */
+    public ConcurrentHashTable(int size) throws IllegalArgumentException{
+        if (size <= 0 )
+            throw new IllegalArgumentException();
+        int capacity = Integer.highestOneBit(size);
+        table = new AtomicReferenceArray<Node>((capacity < size) ? capacity << 1 : capacity);
+    }
+
+    /** Insert the value.
+     * @param value to insert
+     * @return true if item has been inserted, false if there already exists the same item.
+     */
+    @Override
+    public boolean insert(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hashFunction(value);
+        AtomicReferenceArray<Node> tab = table;
+        while (true){
+            int i = hash & (tab.length() - 1);
+            Node head = tab.get(i);
+            // First insertion of the bin
+            if (head == null){
+                if (tab.compareAndSet(i, null, new Node(hash, value, null)))
+                    break;
+            }
+            // Bin already moved, continue in the new table
+            else if (head instanceof ForwardingNode){
+                Resize r = ((ForwardingNode)head).resize;
+                transfer(r);
+                tab = r.to;
+            }
+            else{
+                synchronized (head){
+                    // Retry if another writer replaced the chain meanwhile
+                    if (tab.get(i) == head){
+                        if (find(head, hash, value) != null)
+                            return false;
+                        tab.set(i, new Node(hash, value, head));
+                        break;
+                    }
+                }
+            }
+        }
+        if (nelems.incrementAndGet() > MAX_LOAD * tab.length())
+            expand(tab);
+        return true;
+    }
+
+    /** Delete the value.
+     * @param value to delete
+     * @return true if item has been deleted, false if there is no such item.
+     */
+    @Override
+    public boolean delete(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hashFunction(value);
+        AtomicReferenceArray<Node> tab = table;
+        while (true){
+            int i = hash & (tab.length() - 1);
+            Node head = tab.get(i);
+            if (head == null)
+                return false;
+            else if (head instanceof ForwardingNode){
+                Resize r = ((ForwardingNode)head).resize;
+                transfer(r);
+                tab = r.to;
+            }
+            else{
+                synchronized (head){
+                    if (tab.get(i) == head){
+                        Node target = find(head, hash, value);
+                        if (target == null)
+                            return false;
+                        // Copy the nodes in front of the target, share the rest
+                        Node chain = target.next;
+                        for (Node n = head; n != target; n = n.next)
+                            chain = new Node(n.hash, n.value, chain);
+                        tab.set(i, chain);
+                        nelems.decrementAndGet();
+                        return true;
+                    }
+                }
+            }
+        }
+    }
+
+    /** Determine if element exists in the table. Never blocks.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hashFunction(value);
+        AtomicReferenceArray<Node> tab = table;
+        while (true){
+            Node head = tab.get(hash & (tab.length() - 1));
+            if (head instanceof ForwardingNode)
+                tab = ((ForwardingNode)head).resize.to;
+            else
+                return find(head, hash, value) != null;
+        }
+    }
+
+    /** Determine if the characters buf[off..off+len) form an element of the table. Never blocks.
+     * @param buf characters to look up
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        int hash = hashFunction(buf, off, len);
+        AtomicReferenceArray<Node> tab = table;
+        while (true){
+            Node head = tab.get(hash & (tab.length() - 1));
+            if (head instanceof ForwardingNode)
+                tab = ((ForwardingNode)head).resize.to;
+            else{
+                for (Node n = head; n != null; n = n.next){
+                    if (n.hash == hash && Chars.regionEquals(n.value, buf, off, len))
+                        return true;
+                }
+                return false;
+            }
+        }
+    }
+
+    /** Print out the hash table.
+     * Not a consistent snapshot if other threads modify the table meanwhile.
+     */
+    @Override
+    public void printTable() {
+        Resize r = resize;
+        if (r != null)
+            transfer(r);
+        AtomicReferenceArray<Node> tab = table;
+        for (int i = 0; i < tab.length(); i++){
+            System.out.print(i+": ");
+            Node n = tab.get(i);
+            while (n != null && !(n instanceof ForwardingNode)){
+                System.out.print(n.value);
+                if (n.next != null)
+                    System.out.print(", ");
+                n = n.next;
+            }
+            System.out.println();
+        }
+    }
+
+    /** The number of elements currently store in the table.
+     * @return int the number of elements
+     */
+    @Override
+    public int getSize() {
+        return nelems.get();
+    }
+
+    /** Iterate over a copy of the elements. Never blocks. Weakly consistent:
+     * every element present during the whole copy is seen, and elements that
+     * other threads insert or delete meanwhile may or may not be.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        AtomicReferenceArray<Node> tab = table;
+        List<String> words = new ArrayList<String>(nelems.get());
+        for (int i = 0; i < tab.length(); i++)
+            collect(tab, i, words);
+        return Collections.unmodifiableList(words).iterator();
+    }
+
+    /** Find the node holding the value in a chain.
+     * @param n head of the chain
+     * @param hash hash of the value
+     * @param value value to look for
+     * @return the node, null if no such value exists.
+     */
+    private static Node find(Node n, int hash, String value){
+        for (; n != null; n = n.next){
+            if (n.hash == hash && n.value.equals(value))
+                return n;
+        }
+        return null;
+    }
+
+    /** Add the elements of one bin, following it into the new table if it was moved.
+     * @param tab table of the bin
+     * @param i bin index
+     * @param words list to add the elements to
+     */
+    private static void collect(AtomicReferenceArray<Node> tab, int i, List<String> words){
+        Node n = tab.get(i);
+        if (n instanceof ForwardingNode){
+            // The table doubled, so bin i went to bins i and i + length of the new table
+            AtomicReferenceArray<Node> to = ((ForwardingNode)n).resize.to;
+            collect(to, i, words);
+            collect(to, i + tab.length(), words);
+            return;
+        }
+        for (; n != null; n = n.next)
+            words.add(n.value);
+    }
+
+    /** Start doubling the given table unless another thread already did,
+     * then help move its bins.
+     * @param tab table that went over the load factor
+     */
+    private void expand(AtomicReferenceArray<Node> tab){
+        if (table != tab)
+            return;
+        if (resizing.compareAndSet(false, true)){
+            if (table != tab){
+                resizing.set(false);
+                return;
+            }
+            resize = new Resize(tab);
+        }
+        Resize r = resize;
+        if (r != null && r.from == tab)
+            transfer(r);
+    }
+
+    /** Move bins of an expansion until none is left to claim.
+     * The thread that moves the last bin publishes the new table.
+     * @param r expansion to help with
+     */
+    private void transfer(Resize r){
+        int n = r.from.length();
+        while (true){
+            int hi = r.nextBin.get();
+            if (hi <= 0)
+                return;
+            int lo = Math.max(0, hi - TRANSFER_STRIDE);
+            if (!r.nextBin.compareAndSet(hi, lo))
+                continue;
+
+            for (int i = lo; i < hi; i++)
+                moveBin(r, i);
+
+            if (r.moved.addAndGet(hi - lo) == n){
+                table = r.to;
+                resize = null;
+                resizing.set(false);
+                return;
+            }
+        }
+    }
+
+    /** Split one bin of the old table into bins i and i + n of the new one.
+     * @param r expansion in progress
+     * @param i bin index in the old table
+     */
+    private static void moveBin(Resize r, int i){
+        int n = r.from.length();
+        while (true){
+            Node head = r.from.get(i);
+            if (head == null){
+                if (r.from.compareAndSet(i, null, r.forward))
+                    return;
+            }
+            else{
+                synchronized (head){
+                    if (r.from.get(i) == head){
+                        Node low = null;
+                        Node high = null;
+                        for (Node e = head; e != null; e = e.next){
+                            if ((e.hash & n) == 0)
+                                low = new Node(e.hash, e.value, low);
+                            else
+                                high = new Node(e.hash, e.value, high);
+                        }
+                        r.to.set(i, low);
+                        r.to.set(i + n, high);
+                        r.from.set(i, r.forward);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /** Hash function to assign key to each element.
+     * @param value The input String value
+     * @return Hash of the value; the bin is hash & (length - 1)
+     */
+    private static int hashFunction(String value){
+        int h = value.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Hash function for characters of an array, equal to hashFunction of the String they form.
+     * @param buf characters to hash
+     * @param off index of the first character
+     * @param len number of characters
+     * @return Hash of the characters; the bin is hash & (length - 1)
+     */
+    private static int hashFunction(char[] buf, int off, int len){
+        int hashCode = 0;  // Same as String.hashCode
+        for (int i = off; i < off + len; i++)
+            hashCode = 31 * hashCode + buf[i];
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Getter method for testing
+     * @return number of bins
+     */
+    public int getBuckets(){
+        return table.length();
+    }
+
+    public static void main(String[] args) throws InterruptedException{
+        ConcurrentHashTable tester = new ConcurrentHashTable(1);
+        // Four writers expand the table together while a reader checks the first words
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++){
+            int first = t * 10000;
+            writers[t] = new Thread(() -> {
+                for (int i = first; i < first + 10000; i++)
+                    tester.insert("word" + i);
+            });
+        }
+        tester.insert("first");
+        for (Thread writer : writers)
+            writer.start();
+        boolean found = true;
+        for (int i = 0; i < 100000; i++)
+            found &= tester.contains("first");
+        for (Thread writer : writers)
+            writer.join();
+        System.out.println("Size: " + tester.getSize() + ", bins: " + tester.getBuckets());
+        System.out.println("Word found during every expansion: " + found);
+
+        boolean all = true;
+        for (int i = 0; i < 40000; i++)
+            all &= tester.contains("word" + i);
+        System.out.println("All inserted words found: " + all);
+    }
+}
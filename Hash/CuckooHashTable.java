@@ -0,0 +1,377 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Bucketized cuckoo hash table with a small stash.
+ * <p>
+ * Every word can live in one of two buckets of four slots, chosen by two
+ * hash functions derived from one 32-bit hash. A lookup compares the cached
+ * hashes of at most eight slots, two cache lines of the hash array, and
+ * only looks at a String whose hash matches. When both buckets of a new
+ * word are full, a random resident is kicked out to its other bucket, and
+ * so on for a bounded number of kicks; a word still homeless at the end
+ * goes into the stash, and only a full stash makes the table grow. The
+ * stash is searched only when it is not empty.
+ */
+public class CuckooHashTable implements IHashTable {
+
+    private static final int SLOTS = 4; //Slots per bucket
+    private static final int MAX_KICKS = 500; //Kicks tried before stashing a word
+    private static final int STASH_SIZE = 4; //Most words in the stash
+    private static final double MAX_LOAD = 0.9; //Load factor ensureCapacity sizes for
+    private static final int MAX_BUCKETS = 1 << 28; //Most buckets, so that the slot arrays stay below 2^31
+
+    private int nelems;  //Number of element stored in the hash table, stash included
+    private int mask; //Number of buckets - 1. Number of buckets is always a power of two.
+    private String[] keys; //Slots, bucket b is keys[b*SLOTS..b*SLOTS+SLOTS), null for an empty slot
+    private int[] hashes; //Cached hash of the element in the same slot
+    private final ArrayList<String> stash = new ArrayList<String>(STASH_SIZE); //Words that found no slot
+    private int seed; //Per-table hash seed
+
+    /**
+     * Constructor for hash table
+     * @param Initial number of elements
+     */
+    public CuckooHashTable(int size) throws IllegalArgumentException{
+        if (size <= 0 )
+            throw new IllegalArgumentException();
+        allocate(bucketsFor(size));
+        seed = ThreadLocalRandom.current().nextInt();
+    }
+
+    /** Insert the value.
+     * @param value to insert
+     * @return true if item has been inserted, false if there already exists the same item.
+     */
+    @Override
+    public boolean insert(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hashFunction(value);
+        if (indexOf(value, hash) >= 0 || (!stash.isEmpty() && stash.contains(value)))
+            return false;
+        String homeless = place(value, hash);
+        if (homeless != null){
+            if (stash.size() < STASH_SIZE)
+                stash.add(homeless);
+            else
+                resize((mask + 1) * 2, homeless);
+        }
+        nelems++;
+        return true;
+    }
+
+    /** Delete the value.
+     * @param value to delete
+     * @return true if item has been deleted, false if there is no such item.
+     */
+    @Override
+    public boolean delete(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int i = indexOf(value, hashFunction(value));
+        if (i >= 0){
+            keys[i] = null;
+            nelems--;
+            // The freed slot may take a stashed word
+            if (!stash.isEmpty())
+                unstash();
+            return true;
+        }
+        if (!stash.isEmpty() && stash.remove(value)){
+            nelems--;
+            return true;
+        }
+        return false;
+    }
+
+    /** Determine if element exists in the table.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        if (indexOf(value, hashFunction(value)) >= 0)
+            return true;
+        return !stash.isEmpty() && stash.contains(value);
+    }
+
+    /** Determine if the characters buf[off..off+len) form an element of the table.
+     * @param buf characters to look up
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        int hash = StandardHashStrategy.MURMUR3.hash(buf, off, len, seed);
+        int b1 = bucket1(hash);
+        int b2 = bucket2(hash);
+        for (int i = b1 * SLOTS; i < b1 * SLOTS + SLOTS; i++){
+            if (hashes[i] == hash && keys[i] != null && Chars.regionEquals(keys[i], buf, off, len))
+                return true;
+        }
+        for (int i = b2 * SLOTS; i < b2 * SLOTS + SLOTS; i++){
+            if (hashes[i] == hash && keys[i] != null && Chars.regionEquals(keys[i], buf, off, len))
+                return true;
+        }
+        for (String word : stash){
+            if (Chars.regionEquals(word, buf, off, len))
+                return true;
+        }
+        return false;
+    }
+
+    /** Print out the hash table, one bucket per line */
+    @Override
+    public void printTable() {
+        for (int b = 0; b <= mask; b++){
+            System.out.print(b+": ");
+            boolean first = true;
+            for (int i = b * SLOTS; i < b * SLOTS + SLOTS; i++){
+                if (keys[i] != null){
+                    System.out.print((first ? "" : ", ") + keys[i]);
+                    first = false;
+                }
+            }
+            System.out.println();
+        }
+        if (!stash.isEmpty())
+            System.out.println("stash: " + String.join(", ", stash));
+    }
+
+    /** The number of elements currently store in the table.
+     * @return int the number of elements
+     */
+    @Override
+    public int getSize() {
+        return nelems;
+    }
+
+    /** Iterate over a copy of the elements in slot order, then the stash,
+     * so the table may be modified while iterating.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        List<String> words = new ArrayList<String>(nelems);
+        for (String key : keys){
+            if (key != null)
+                words.add(key);
+        }
+        words.addAll(stash);
+        return Collections.unmodifiableList(words).iterator();
+    }
+
+    /** Grow the table once so that it holds the given number of
+     * elements at a load the kicks handle easily.
+     * @param expectedSize number of elements the table should hold
+     */
+    @Override
+    public void ensureCapacity(int expectedSize){
+        int buckets = bucketsFor(expectedSize);
+        if (buckets > mask + 1)
+            resize(buckets, null);
+    }
+
+    /** Find the slot holding the value; the stash is not searched.
+     * @param value value to look for
+     * @param hash hash of the value
+     * @return the slot index, -1 if no such value exists.
+     */
+    private int indexOf(String value, int hash){
+        int b1 = bucket1(hash);
+        for (int i = b1 * SLOTS; i < b1 * SLOTS + SLOTS; i++){
+            if (hashes[i] == hash && value.equals(keys[i]))
+                return i;
+        }
+        int b2 = bucket2(hash);
+        for (int i = b2 * SLOTS; i < b2 * SLOTS + SLOTS; i++){
+            if (hashes[i] == hash && value.equals(keys[i]))
+                return i;
+        }
+        return -1;
+    }
+
+    /** Put a word into one of its buckets, kicking residents along if both are full.
+     * @param value word to place
+     * @param hash hash of the word
+     * @return null if every word found a slot, otherwise the word left without one
+     */
+    private String place(String value, int hash){
+        int b = bucket1(hash);
+        if (putInBucket(b, value, hash) || putInBucket(bucket2(hash), value, hash))
+            return null;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int kick = 0; kick < MAX_KICKS; kick++){
+            // Swap with a random resident and move it to its other bucket
+            int i = b * SLOTS + random.nextInt(SLOTS);
+            String kicked = keys[i];
+            int kickedHash = hashes[i];
+            keys[i] = value;
+            hashes[i] = hash;
+            value = kicked;
+            hash = kickedHash;
+            b = (bucket1(hash) == b) ? bucket2(hash) : bucket1(hash);
+            if (putInBucket(b, value, hash))
+                return null;
+        }
+        return value;
+    }
+
+    /** Put a word into a free slot of a bucket.
+     * @param b bucket index
+     * @param value word to put
+     * @param hash hash of the word
+     * @return true if the bucket had a free slot
+     */
+    private boolean putInBucket(int b, String value, int hash){
+        for (int i = b * SLOTS; i < b * SLOTS + SLOTS; i++){
+            if (keys[i] == null){
+                keys[i] = value;
+                hashes[i] = hash;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Move stashed words into the table where they now fit. */
+    private void unstash(){
+        for (int k = stash.size() - 1; k >= 0; k--){
+            String word = stash.get(k);
+            int hash = hashFunction(word);
+            if (putInBucket(bucket1(hash), word, hash) || putInBucket(bucket2(hash), word, hash))
+                stash.remove(k);
+        }
+    }
+
+    /** Rehash all words into at least the given number of buckets with a fresh seed,
+     * doubling again until every word finds a slot or the stash.
+     * @param buckets number of buckets, a power of two
+     * @param extra word to add that is not counted in nelems yet, null if none
+     * @throws IllegalStateException if the words do not fit in MAX_BUCKETS buckets;
+     * the table must not be used afterwards
+     */
+    private void resize(int buckets, String extra) throws IllegalStateException{
+        String[] words = new String[nelems + ((extra == null) ? 0 : 1)];
+        int n = 0;
+        for (String word : keys){
+            if (word != null)
+                words[n++] = word;
+        }
+        for (String word : stash)
+            words[n++] = word;
+        if (extra != null)
+            words[n++] = extra;
+        buckets = Math.min(buckets, MAX_BUCKETS);
+        while (!rehash(words, buckets)){
+            if (buckets == MAX_BUCKETS)
+                throw new IllegalStateException("Cannot place "+words.length+" words in "+buckets+" buckets");
+            buckets *= 2;
+        }
+    }
+
+    /** Try to place the words into empty buckets with a fresh seed.
+     * @param words all words of the table
+     * @param buckets number of buckets, a power of two
+     * @return false if some word found neither a slot nor room in the stash
+     */
+    private boolean rehash(String[] words, int buckets){
+        allocate(buckets);
+        stash.clear();
+        seed = ThreadLocalRandom.current().nextInt();
+        for (String word : words){
+            String homeless = place(word, hashFunction(word));
+            if (homeless != null){
+                if (stash.size() == STASH_SIZE)
+                    return false;
+                stash.add(homeless);
+            }
+        }
+        return true;
+    }
+
+    /** Allocate empty buckets.
+     * @param buckets number of buckets, a power of two
+     */
+    private void allocate(int buckets){
+        keys = new String[buckets * SLOTS];
+        hashes = new int[buckets * SLOTS];
+        mask = buckets - 1;
+    }
+
+    /** Number of buckets that holds the given number of elements under MAX_LOAD.
+     * @param size number of elements
+     * @return a power of two
+     */
+    private static int bucketsFor(int size){
+        int buckets = 1;
+        while (buckets < MAX_BUCKETS && size > MAX_LOAD * buckets * SLOTS)
+            buckets <<= 1;
+        return buckets;
+    }
+
+    /** @return first bucket of a hash */
+    private int bucket1(int hash){
+        return hash & mask;
+    }
+
+    /** @return second bucket of a hash, different from the first when there are two buckets or more */
+    private int bucket2(int hash){
+        int b = StandardHashStrategy.finalizer(hash ^ 0x5bd1e995) & mask;
+        return (b == bucket1(hash)) ? (b ^ 1) & mask : b;
+    }
+
+    /** Hash function to assign key to each element.
+     * @param value The input String value
+     * @return Integer hash of the value
+     */
+    private int hashFunction(String value){
+        return StandardHashStrategy.MURMUR3.hash(value, seed);
+    }
+
+    /** Getter method for testing
+     * @return number of buckets
+     */
+    public int getBuckets(){
+        return mask + 1;
+    }
+
+    /** Getter method for testing
+     * @return number of words in the stash
+     */
+    public int getStashSize(){
+        return stash.size();
+    }
+
+    public static void main(String[] args){
+        CuckooHashTable tester = new CuckooHashTable(1000);
+        // Fill until a word finds no slot within MAX_KICKS and goes to the stash
+        int words = 0;
+        while (tester.getStashSize() == 0 && words < 1000000)
+            tester.insert("word" + words++);
+        System.out.println("Stash used after " + words + " words, buckets: " + tester.getBuckets()
+                + ", load: " + (double)words / (tester.getBuckets() * SLOTS));
+        boolean all = true;
+        for (int i = 0; i < words; i++)
+            all &= tester.contains("word" + i);
+        System.out.println("Every word found, stash included: " + all);
+
+        // Deleting frees slots the stashed words can move into
+        for (int i = 0; i < words && tester.getStashSize() > 0; i++)
+            tester.delete("word" + i);
+        System.out.println("Stash size after deletes: " + tester.getStashSize());
+
+        CuckooHashTable small = new CuckooHashTable(8);
+        for (String word : new String[]{"a", "b", "c", "d", "e"})
+            small.insert(word);
+        small.printTable();
+    }
+}
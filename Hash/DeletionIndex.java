@@ -0,0 +1,146 @@
+import java.util.*;
+
+/** Suggestion index in the style of SymSpell.
+ * <p>
+ * Every word is filed under each string obtained by deleting up to
+ * maxDistance letters from it. Two words within maxDistance edits of each
+ * other share at least one such deletion, so the suggestions for a query are
+ * found by looking up the query's own deletions and verifying the few words
+ * filed under them, instead of generating every possible edit of the query.
+ * Only the first PREFIX_LENGTH letters of each word are used for the
+ * deletions, which bounds the size of the index for long words; the
+ * verification step still compares whole words.
+ */
+public class DeletionIndex implements SuggestionEngine {
+
+    private static final int PREFIX_LENGTH = 7; //Letters of each word that deletions are taken from
+
+    private final int maxDistance; //Largest edit distance of a suggestion
+    private final Map<String, List<String>> index = new HashMap<String, List<String>>(); //Deletion to source words
+    private long lookups; //Number of index lookups done by suggest
+    private long verified; //Number of words compared against a query by suggest
+
+    /**
+     * Constructor for an empty index
+     * @param maxDistance largest edit distance of a suggestion, 1 to 3
+     * @throws IllegalArgumentException if maxDistance is out of range
+     */
+    public DeletionIndex(int maxDistance) throws IllegalArgumentException{
+        if (maxDistance < 1 || maxDistance > 3)
+            throw new IllegalArgumentException();
+        this.maxDistance = maxDistance;
+    }
+
+    /** Add a dictionary word.
+     * @param word word to add
+     */
+    @Override
+    public void add(String word){
+        for (String deletion : deletions(word)){
+            List<String> words = index.get(deletion);
+            if (words == null){
+                words = new ArrayList<String>(1);
+                index.put(deletion, words);
+            }
+            words.add(word);
+        }
+    }
+
+    /** Find the dictionary words within maxDistance edits of the query.
+     * @param word query word
+     * @return the words, closest first and alphabetically within a distance;
+     *         includes the word itself if it was added
+     */
+    @Override
+    public String[] suggest(String word){
+        Set<String> seen = new HashSet<String>();
+        List<List<String>> byDistance = new ArrayList<List<String>>(maxDistance + 1);
+        for (int d = 0; d <= maxDistance; d++)
+            byDistance.add(new ArrayList<String>());
+        for (String deletion : deletions(word)){
+            lookups++;
+            List<String> words = index.get(deletion);
+            if (words == null)
+                continue;
+            for (String candidate : words){
+                if (Math.abs(candidate.length() - word.length()) > maxDistance || !seen.add(candidate))
+                    continue;
+                verified++;
+                int d = EditDistance.damerauLevenshtein(word, candidate, maxDistance);
+                if (d <= maxDistance){
+                    byDistance.get(d).add(candidate);
+                }
+            }
+        }
+        List<String> suggestions = new ArrayList<String>();
+        for (List<String> words : byDistance){
+            Collections.sort(words);
+            suggestions.addAll(words);
+        }
+        return suggestions.toArray(new String[suggestions.size()]);
+    }
+
+    /** Largest edit distance of a suggestion
+     * @return the maximum distance
+     */
+    @Override
+    public int getMaxDistance(){
+        return maxDistance;
+    }
+
+    /** Getter method for statistics
+     * @return number of index lookups done by suggest
+     */
+    public long getLookups(){
+        return lookups;
+    }
+
+    /** Getter method for statistics
+     * @return number of words compared against a query by suggest
+     */
+    public long getVerified(){
+        return verified;
+    }
+
+    /** Getter method for testing
+     * @return number of distinct deletions in the index
+     */
+    public int getIndexSize(){
+        return index.size();
+    }
+
+    /** All strings made by deleting up to maxDistance letters from the
+     * prefix of a word, including the prefix itself.
+     * @param word word to delete letters from
+     * @return the distinct deletions
+     */
+    private Set<String> deletions(String word){
+        Set<String> result = new HashSet<String>();
+        String prefix = (word.length() > PREFIX_LENGTH) ? word.substring(0, PREFIX_LENGTH) : word;
+        result.add(prefix);
+        List<String> level = Collections.singletonList(prefix);
+        for (int d = 0; d < maxDistance; d++){
+            List<String> next = new ArrayList<String>();
+            for (String s : level){
+                for (int i = 0; i < s.length(); i++){
+                    String deletion = s.substring(0, i) + s.substring(i + 1);
+                    if (result.add(deletion))
+                        next.add(deletion);
+                }
+            }
+            level = next;
+        }
+        return result;
+    }
+
+    public static void main(String[] args){
+        DeletionIndex tester = new DeletionIndex(2);
+        String[] words = {"hello", "help", "hell", "shell", "world", "word", "sword"};
+        for (String word : words)
+            tester.add(word);
+        System.out.println("Index entries: " + tester.getIndexSize());
+        for (String query : new String[]{"helo", "wrld", "hellp", "xyz"})
+            System.out.println(query + ": " + Arrays.toString(tester.suggest(query)));
+        System.out.println("Lookups: " + tester.getLookups() + ", verified: " + tester.getVerified());
+    }
+}
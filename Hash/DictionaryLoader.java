@@ -0,0 +1,174 @@
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/** Reads the lowercased, whitespace separated words of a dictionary file.
+ * <p>
+ * A file is memory-mapped and tokenized byte by byte, without regular
+ * expressions. Large files are cut into one range per worker of the common
+ * fork-join pool, each range is parsed in parallel, and the results are
+ * joined in file order. ASCII words are lowercased while they are copied out
+ * of the mapping; a word with other UTF-8 bytes is decoded, split again at
+ * any non-ASCII whitespace and lowercased with String.toLowerCase, so both
+ * readWords methods give the same words for the same text.
+ */
+public class DictionaryLoader {
+
+    private static final int MIN_RANGE_BYTES = 1 << 20; //Files below this size are parsed by one thread
+    private static final int BUFFER_CHARS = 8192; //Chars read at a time from a Reader
+    private static final int AVERAGE_WORD_BYTES = 9; //Bytes per word, newline included, of a typical word list
+
+    private DictionaryLoader(){
+    }
+
+    /** Read the words of a dictionary file.
+     * @param dictFile dictionary file, UTF-8
+     * @return lowercased words in file order, including duplicates
+     * @throws IOException if the file cannot be read or is larger than 2GB
+     */
+    public static List<String> readWords(File dictFile) throws IOException{
+        MappedByteBuffer map;
+        try (FileChannel channel = new RandomAccessFile(dictFile, "r").getChannel()){
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Dictionary file larger than 2GB");
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int size = map.capacity();
+        int ranges = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), size / MIN_RANGE_BYTES));
+        if (ranges == 1)
+            return parse(map, 0, size);
+
+        List<List<String>> parts = IntStream.range(0, ranges).parallel()
+                .mapToObj(r -> parse(map, (int)((long)size * r / ranges), (int)((long)size * (r + 1) / ranges)))
+                .collect(Collectors.toList());
+        int total = 0;
+        for (List<String> part : parts)
+            total += part.size();
+        List<String> words = new ArrayList<String>(total);
+        for (List<String> part : parts)
+            words.addAll(part);
+        return words;
+    }
+
+    /** Read the words of a dictionary.
+     * Splits at any Character.isWhitespace character, like Scanner.
+     * @param dictFileReader Reader object for a dictionary file
+     * @return lowercased words in file order, including duplicates
+     * @throws IOException if reading fails
+     */
+    public static List<String> readWords(Reader dictFileReader) throws IOException{
+        List<String> words = new ArrayList<String>();
+        char[] buf = new char[BUFFER_CHARS];
+        char[] word = new char[64];
+        int len = 0;
+        boolean ascii = true;
+        int n;
+        while ((n = dictFileReader.read(buf)) >= 0){
+            for (int i = 0; i < n; i++){
+                char ch = buf[i];
+                if (Character.isWhitespace(ch)){
+                    if (len > 0)
+                        words.add(toWord(word, len, ascii));
+                    len = 0;
+                    ascii = true;
+                    continue;
+                }
+                if (len == word.length)
+                    word = Arrays.copyOf(word, len * 2);
+                if (ch >= 'A' && ch <= 'Z')
+                    ch += 'a' - 'A';
+                else if (ch >= 0x80)
+                    ascii = false;
+                word[len++] = ch;
+            }
+        }
+        if (len > 0)
+            words.add(toWord(word, len, ascii));
+        return words;
+    }
+
+    /** Parse the words that start in map[from..to).
+     * A word that runs past to still belongs to this range; one that started
+     * before from belongs to the previous range.
+     * @param map mapped file
+     * @param from first byte of the range
+     * @param to end of the range, exclusive
+     * @return lowercased words in file order
+     */
+    private static List<String> parse(MappedByteBuffer map, int from, int to){
+        List<String> words = new ArrayList<String>(Math.max(16, (to - from) / AVERAGE_WORD_BYTES));
+        int size = map.capacity();
+        int i = from;
+        if (i > 0 && !isWhitespace(map.get(i - 1))){
+            while (i < size && !isWhitespace(map.get(i)))
+                i++;
+        }
+        byte[] word = new byte[64];
+        while (i < to){
+            byte b = map.get(i);
+            if (isWhitespace(b)){
+                i++;
+                continue;
+            }
+            // Copy one word, lowercasing ASCII letters
+            int len = 0;
+            boolean ascii = true;
+            while (i < size && !isWhitespace(b = map.get(i))){
+                if (len == word.length)
+                    word = Arrays.copyOf(word, len * 2);
+                if (b >= 'A' && b <= 'Z')
+                    b += 'a' - 'A';
+                else if (b < 0)
+                    ascii = false;
+                word[len++] = b;
+                i++;
+            }
+            if (ascii)
+                words.add(new String(word, 0, len, StandardCharsets.ISO_8859_1));
+            else
+                addWords(new String(word, 0, len, StandardCharsets.UTF_8), words);
+        }
+        return words;
+    }
+
+    /** Split a decoded token at the whitespace characters that are not ASCII,
+     * such as EM SPACE, as readWords(Reader) does, and lowercase the words.
+     * @param token decoded characters between two ASCII whitespace bytes
+     * @param words receives the words
+     */
+    private static void addWords(String token, List<String> words){
+        int start = 0;
+        for (int i = 0; i < token.length(); i++){
+            if (Character.isWhitespace(token.charAt(i))){
+                if (i > start)
+                    words.add(token.substring(start, i).toLowerCase());
+                start = i + 1;
+            }
+        }
+        if (token.length() > start)
+            words.add(token.substring(start).toLowerCase());
+    }
+
+    /** Make a word from the chars of a token.
+     * @param word token characters, ASCII letters already lowercased
+     * @param len token length
+     * @param ascii true if all characters are ASCII
+     * @return the lowercased word
+     */
+    private static String toWord(char[] word, int len, boolean ascii){
+        String s = new String(word, 0, len);
+        return ascii ? s : s.toLowerCase();
+    }
+
+    /** @return true if b is an ASCII whitespace byte */
+    private static boolean isWhitespace(byte b){
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1c && b <= 0x1f);
+    }
+}
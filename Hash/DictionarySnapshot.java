@@ -0,0 +1,276 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** Read-only dictionary answered straight from a memory-mapped snapshot file.
+ * <p>
+ * Opening a snapshot only maps the file; nothing is parsed or copied onto
+ * the heap, so startup time does not depend on the dictionary size and
+ * processes that open the same file share its pages through the page cache.
+ * <p>
+ * File layout, all ints big-endian:
+ * <pre>
+ * header        MAGIC, VERSION, buckets, nelems, arena size
+ * bucket starts int[buckets + 1]   index of the first entry of each bucket
+ * entry offsets int[nelems + 1]    arena offset of each word, sorted by bucket
+ * entry hashes  int[nelems]        hash of each word
+ * arena         byte[arena size]   UTF-8 bytes of all words, back to back
+ * </pre>
+ * Words are hashed with StandardHashStrategy.FNV1A and seed 0 and placed in
+ * bucket (hash &amp; 0x7fffffff) % buckets.
+ */
+public class DictionarySnapshot implements IHashTable {
+
+    private static final int MAGIC = 0x44494354; //"DICT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * 4;
+
+    private final ByteBuffer map; //Mapped snapshot file
+    private final int buckets; //Number of buckets
+    private final int nelems; //Number of words
+    private final int bucketBase; //File offset of bucket starts
+    private final int offsetBase; //File offset of entry offsets
+    private final int hashBase; //File offset of entry hashes
+    private final int arenaBase; //File offset of the arena
+
+    /**
+     * Constructor over a mapped snapshot, use open.
+     * @param map buffer holding a whole snapshot file
+     */
+    private DictionarySnapshot(ByteBuffer map) throws IOException{
+        if (map.capacity() < HEADER_BYTES || map.getInt(0) != MAGIC || map.getInt(4) != VERSION)
+            throw new IOException("Not a dictionary snapshot");
+        int buckets = map.getInt(8);
+        int nelems = map.getInt(12);
+        int arenaSize = map.getInt(16);
+        // In long, so that corrupt counts cannot overflow into a size that matches
+        long offsetBase = HEADER_BYTES + 4L * (buckets + 1);
+        long hashBase = offsetBase + 4L * (nelems + 1);
+        long arenaBase = hashBase + 4L * nelems;
+        if (buckets <= 0 || nelems < 0 || arenaSize < 0 || arenaBase + arenaSize != map.capacity())
+            throw new IOException("Corrupt dictionary snapshot");
+        // Cheap checks of the tables' ends; entries in between are trusted
+        if (map.getInt(HEADER_BYTES) != 0 || map.getInt((int)offsetBase - 4) != nelems
+                || map.getInt((int)offsetBase) != 0 || map.getInt((int)hashBase - 4) != arenaSize)
+            throw new IOException("Corrupt dictionary snapshot");
+        this.map = map;
+        this.buckets = buckets;
+        this.nelems = nelems;
+        this.bucketBase = HEADER_BYTES;
+        this.offsetBase = (int)offsetBase;
+        this.hashBase = (int)hashBase;
+        this.arenaBase = (int)arenaBase;
+    }
+
+    /** Map a snapshot file.
+     * The mapping stays valid after the channel is closed.
+     * @param file snapshot written by write
+     * @return the read-only dictionary
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static DictionarySnapshot open(File file) throws IOException{
+        try (FileChannel channel = new RandomAccessFile(file, "r").getChannel()){
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Dictionary snapshot larger than 2GB");
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new DictionarySnapshot(map);
+        }
+    }
+
+    /** Write a snapshot of the given words.
+     * @param words distinct words to store
+     * @param file file to create or overwrite
+     * @throws IOException if the file cannot be written or would exceed 2GB
+     */
+    public static void write(Collection<String> words, File file) throws IOException{
+        int nelems = words.size();
+        int buckets = Math.max(1, nelems);
+        byte[][] bytes = new byte[nelems][];
+        int[] hashes = new int[nelems];
+        int[] start = new int[buckets + 1];
+
+        // Encode and count words per bucket
+        int n = 0;
+        long arenaSize = 0;
+        for (String word : words){
+            bytes[n] = word.getBytes(StandardCharsets.UTF_8);
+            hashes[n] = hashFunction(word);
+            arenaSize += bytes[n].length;
+            start[indexFor(hashes[n], buckets) + 1]++;
+            n++;
+        }
+        if (HEADER_BYTES + 4L * (buckets + 2 * nelems + 2) + arenaSize > Integer.MAX_VALUE)
+            throw new IOException("Dictionary snapshot larger than 2GB");
+        for (int b = 0; b < buckets; b++)
+            start[b + 1] += start[b];
+
+        // Sort words by bucket
+        int[] order = new int[nelems];
+        int[] next = start.clone();
+        for (int i = 0; i < nelems; i++)
+            order[next[indexFor(hashes[i], buckets)]++] = i;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))){
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(buckets);
+            out.writeInt(nelems);
+            out.writeInt((int)arenaSize);
+            for (int b = 0; b <= buckets; b++)
+                out.writeInt(start[b]);
+            int offset = 0;
+            for (int e = 0; e < nelems; e++){
+                out.writeInt(offset);
+                offset += bytes[order[e]].length;
+            }
+            out.writeInt(offset);
+            for (int e = 0; e < nelems; e++)
+                out.writeInt(hashes[order[e]]);
+            for (int e = 0; e < nelems; e++)
+                out.write(bytes[order[e]]);
+        }
+    }
+
+    /** Not supported, a snapshot is read-only.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean insert(String value){
+        throw new UnsupportedOperationException("Dictionary snapshot is read-only");
+    }
+
+    /** Not supported, a snapshot is read-only.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean delete(String value){
+        throw new UnsupportedOperationException("Dictionary snapshot is read-only");
+    }
+
+    /** Determine if element exists in the snapshot.
+     * Compares against the mapped bytes without creating Strings.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hashFunction(value);
+        int b = indexFor(hash, buckets);
+        int end = map.getInt(bucketBase + 4 * (b + 1));
+        for (int e = map.getInt(bucketBase + 4 * b); e < end; e++){
+            if (map.getInt(hashBase + 4 * e) == hash){
+                int off = map.getInt(offsetBase + 4 * e);
+                int len = map.getInt(offsetBase + 4 * (e + 1)) - off;
+                if (Utf8.equals(value, map, arenaBase + off, len))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /** Print out the hash table */
+    @Override
+    public void printTable() {
+        for (int b = 0; b < buckets; b++){
+            System.out.print(b+": ");
+            int end = map.getInt(bucketBase + 4 * (b + 1));
+            for (int e = map.getInt(bucketBase + 4 * b); e < end; e++){
+                System.out.print(word(e));
+                if (e + 1 < end)
+                    System.out.print(", ");
+            }
+            System.out.println();
+        }
+    }
+
+    /** The number of elements currently store in the table.
+     * @return int the number of elements
+     */
+    @Override
+    public int getSize() {
+        return nelems;
+    }
+
+    /** Iterate over the words in file order, decoding each from the mapped arena.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        return new Iterator<String>(){
+            private int e = 0;
+
+            @Override
+            public boolean hasNext(){
+                return e < nelems;
+            }
+
+            @Override
+            public String next(){
+                if (e >= nelems)
+                    throw new NoSuchElementException();
+                return word(e++);
+            }
+        };
+    }
+
+    /** Decode one word.
+     * @param e entry index
+     * @return the word
+     */
+    private String word(int e){
+        int off = map.getInt(offsetBase + 4 * e);
+        byte[] bytes = new byte[map.getInt(offsetBase + 4 * (e + 1)) - off];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = map.get(arenaBase + off + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Hash function shared by write and contains.
+     * @param value The input String value
+     * @return Integer hash of the value
+     */
+    private static int hashFunction(String value){
+        return StandardHashStrategy.FNV1A.hash(value, 0);
+    }
+
+    /** Map a hash to a bucket.
+     * @param hash hash of the value
+     * @param size Number of buckets
+     * @return bucket index
+     */
+    private static int indexFor(int hash, int size){
+        return (hash & 0x7fffffff) % size;
+    }
+
+    public static void main(String[] args) throws IOException{
+        File file = File.createTempFile("dictionary", ".snapshot");
+        file.deleteOnExit();
+        write(Arrays.asList("apple", "banana", "caf\u00e9", "cherry", "date"), file);
+        DictionarySnapshot tester = open(file);
+        tester.printTable();
+        char[] buf = "a banana split".toCharArray();
+        System.out.println("Size: " + tester.getSize() + ", contains caf\u00e9: " + tester.contains("caf\u00e9")
+                + ", contains banana from a char[]: " + tester.contains(buf, 2, 6) + ", contains fig: " + tester.contains("fig"));
+
+        // A damaged header is rejected instead of read out of bounds
+        try (RandomAccessFile damaged = new RandomAccessFile(file, "rw")){
+            damaged.seek(12);
+            damaged.writeInt(Integer.MAX_VALUE);
+        }
+        try{
+            open(file);
+            System.out.println("Damaged snapshot opened");
+        }
+        catch (IOException e){
+            System.out.println("Damaged snapshot rejected: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.function.Consumer;
+
+/** Generates the candidate corrections of a misspelled word that are one
+ * edit away, and reports those found in a dictionary.
+ * <p>
+ * Every candidate is built in place in one reusable char buffer and looked
+ * up through a Probe on the buffer, so a String is only created for a
+ * candidate the dictionary confirms. One instance checks one word and must
+ * not be shared between threads.
+ */
+class EditCandidates {
+
+    /** Dictionary lookup on a range of a char buffer. */
+    interface Probe {
+        /** @return true if buf[off..off+len) is a dictionary word */
+        boolean contains(char[] buf, int off, int len);
+
+        /** @return false if no dictionary word starts with buf[off..off+len) */
+        default boolean mayHavePrefix(char[] buf, int off, int len){
+            return true;
+        }
+    }
+
+    private final char[] word; //Characters of the misspelled word
+    private final int n; //Length of the word
+    private final char[] buf; //Candidate being built
+    private final Probe probe; //Dictionary lookup
+    private final Consumer<String> hits; //Receives every candidate found in the dictionary
+
+    /**
+     * Constructor
+     * @param word misspelled word
+     * @param probe dictionary lookup
+     * @param hits receives every candidate found in the dictionary, possibly more than once
+     */
+    EditCandidates(String word, Probe probe, Consumer<String> hits){
+        this.word = word.toCharArray();
+        this.n = this.word.length;
+        this.buf = new char[n + 1];
+        this.probe = probe;
+        this.hits = hits;
+    }
+
+    /** Report every candidate, in the order SpellChecker has always listed them. */
+    void generateAll(){
+        wrongLetters();
+        if (n > 1)
+            insertedLetters();
+        deletedLetters();
+        transpositions();
+        spaces();
+    }
+
+    /** A wrong letter error: replace each letter with every other letter a-z.
+     * Letters no dictionary word continues the prefix with are skipped, and
+     * once the unchanged prefix itself is no word's prefix, so is every later candidate. */
+    void wrongLetters(){
+        System.arraycopy(word, 0, buf, 0, n);
+        for (int i = 0; i < n; i++){
+            if (i > 0 && !probe.mayHavePrefix(word, 0, i))
+                return;
+            for (char ch = 'a'; ch <= 'z'; ch++){
+                // The word itself is known to be missing
+                if (ch == word[i])
+                    continue;
+                buf[i] = ch;
+                if (probe.mayHavePrefix(buf, 0, i + 1))
+                    test(n);
+            }
+            buf[i] = word[i];
+        }
+    }
+
+    /** An inserted letter error: drop each letter in turn.
+     * Stops once the letters kept in front are no word's prefix. */
+    void insertedLetters(){
+        // buf holds the word without letter i
+        System.arraycopy(word, 1, buf, 0, n - 1);
+        for (int i = 0; i < n; i++){
+            if (i > 0){
+                if (!probe.mayHavePrefix(word, 0, i))
+                    return;
+                buf[i - 1] = word[i - 1];
+            }
+            test(n - 1);
+        }
+    }
+
+    /** A deleted letter error: add every letter a-z at the front,
+     * at every position in the middle and at the end. Pruned like wrongLetters. */
+    void deletedLetters(){
+        // buf holds the word with a gap at position i
+        System.arraycopy(word, 0, buf, 1, n);
+        for (int i = 0; i <= n; i++){
+            if (i > 0){
+                if (!probe.mayHavePrefix(word, 0, i))
+                    return;
+                buf[i - 1] = word[i - 1];
+            }
+            for (char ch = 'a'; ch <= 'z'; ch++){
+                buf[i] = ch;
+                if (probe.mayHavePrefix(buf, 0, i + 1))
+                    test(n + 1);
+            }
+        }
+    }
+
+    /** A pair of adjacent transposed letters: swap each adjacent pair. */
+    void transpositions(){
+        System.arraycopy(word, 0, buf, 0, n);
+        for (int i = 0; i < n - 1; i++){
+            buf[i] = word[i + 1];
+            buf[i + 1] = word[i];
+            test(n);
+            buf[i] = word[i];
+            buf[i + 1] = word[i + 1];
+        }
+    }
+
+    /** A missing space: split the word into two dictionary words. */
+    void spaces(){
+        for (int i = 1; i < n; i++){
+            if (probe.contains(word, 0, i) && probe.contains(word, i, n - i))
+                hits.accept(new String(word, 0, i) + " " + new String(word, i, n - i));
+        }
+    }
+
+    /** Look up buf[0..len) and report it if found.
+     * @param len length of the candidate
+     */
+    private void test(int len){
+        if (probe.contains(buf, 0, len))
+            hits.accept(new String(buf, 0, len));
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.Arrays;
+
+/** Edit distances between words, with a cut-off for early exit. */
+final class EditDistance {
+
+    private EditDistance(){
+    }
+
+    /** Damerau-Levenshtein distance: the number of inserted, deleted or
+     * replaced letters and swapped adjacent pairs needed to turn a into b,
+     * the edits SpellChecker.checkWord considers. Unlike the restricted
+     * variant this is a metric, which BKTree relies on.
+     * @param a first word
+     * @param b second word
+     * @return the distance
+     */
+    static int damerauLevenshtein(CharSequence a, CharSequence b){
+        return damerauLevenshtein(a, b, a.length() + b.length());
+    }
+
+    /** Damerau-Levenshtein distance that stops as soon as it exceeds max.
+     * @param a first word
+     * @param b second word
+     * @param max largest distance of interest
+     * @return the distance, or max + 1 if it is larger than max
+     */
+    static int damerauLevenshtein(CharSequence a, CharSequence b, int max){
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max)
+            return max + 1;
+        int inf = n + m;
+        int w = m + 2; // h[i][j] is stored at h[i * w + j]
+        int[] h = new int[(n + 2) * w];
+        h[0] = inf;
+        for (int i = 0; i <= n; i++){
+            h[(i + 1) * w] = inf;
+            h[(i + 1) * w + 1] = i;
+        }
+        for (int j = 0; j <= m; j++){
+            h[j + 1] = inf;
+            h[w + j + 1] = j;
+        }
+
+        // Last row in which each letter of the alphabet of a and b was seen
+        char[] alphabet = new char[n + m];
+        for (int i = 0; i < n; i++)
+            alphabet[i] = a.charAt(i);
+        for (int j = 0; j < m; j++)
+            alphabet[n + j] = b.charAt(j);
+        Arrays.sort(alphabet);
+        int[] lastRow = new int[alphabet.length];
+
+        for (int i = 1; i <= n; i++){
+            char ca = a.charAt(i - 1);
+            int lastMatchColumn = 0;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++){
+                char cb = b.charAt(j - 1);
+                int i1 = lastRow[Arrays.binarySearch(alphabet, cb)];
+                int j1 = lastMatchColumn;
+                int cost = 1;
+                if (ca == cb){
+                    cost = 0;
+                    lastMatchColumn = j;
+                }
+                int d = Math.min(Math.min(h[i * w + j] + cost, h[(i + 1) * w + j] + 1),
+                        Math.min(h[i * w + j + 1] + 1, h[i1 * w + j1] + (i - i1 - 1) + 1 + (j - j1 - 1)));
+                h[(i + 1) * w + j + 1] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            // Every alignment crosses this row, a transposition only at a cost no lower than the row
+            if (rowMin > max)
+                return max + 1;
+            lastRow[Arrays.binarySearch(alphabet, ca)] = i;
+        }
+        return Math.min(h[(n + 1) * w + m + 1], max + 1);
+    }
+}
@@ -0,0 +1,357 @@
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Immutable dictionary indexed by a minimal perfect hash, made by HashTable.freeze.
+ * <p>
+ * Words are stored as UTF-8 bytes in one arena, in slot order, one slot per
+ * word. The slot of a word is found with the hash-and-displace scheme of
+ * CHD: a word hashes to a bucket of about five words, and the 16-bit
+ * displacement stored for that bucket selects a second hash that sends
+ * every word of the bucket to its own slot. The build uses 1% more slots
+ * than words so that every bucket finds a displacement quickly; the few
+ * words that land past the end are redirected into the holes left below
+ * it. The index costs about 3.5 bits per word, and contains is one hash,
+ * two array reads and one compare against the arena.
+ */
+public class FrozenHashTable implements IHashTable {
+
+    private static final int BUCKET_SIZE = 5; //Average number of words per bucket
+    private static final double LOAD = 0.99; //Words per slot during the build
+    private static final int MAX_ATTEMPTS = 32; //Builds tried with different seeds before giving up
+
+    private final int nelems; //Number of words, also the number of slots
+    private final int seed; //Hash seed the build succeeded with
+    private final char[] displacements; //Displacement of each bucket
+    private final int[] remap; //Slot below nelems for each build slot at or past nelems
+    private final int[] offsets; //Arena offset of the word in each slot, plus the end of the arena
+    private final ByteBuffer arena; //UTF-8 bytes of all words
+
+    /**
+     * Constructor, use HashTable.freeze.
+     * @param words distinct words
+     * @throws IllegalStateException if no perfect hash was found, e.g. because of hash collisions
+     */
+    FrozenHashTable(String[] words) throws IllegalStateException{
+        nelems = words.length;
+        int buckets = Math.max(1, (nelems + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        int slots = Math.max(nelems, (int)Math.ceil(nelems / LOAD));
+        displacements = new char[buckets];
+
+        int[] slotOf = null;
+        int buildSeed = 0;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && slotOf == null; attempt++){
+            buildSeed = ThreadLocalRandom.current().nextInt();
+            slotOf = place(words, buildSeed, buckets, slots);
+        }
+        if (slotOf == null)
+            throw new IllegalStateException("No perfect hash found");
+        seed = buildSeed;
+
+        // Redirect slots past the end into the free slots below it
+        remap = new int[slots - nelems];
+        boolean[] taken = new boolean[slots];
+        for (int s : slotOf)
+            taken[s] = true;
+        int hole = 0;
+        for (int s = nelems; s < slots; s++){
+            if (!taken[s])
+                continue;
+            while (taken[hole])
+                hole++;
+            remap[s - nelems] = hole++;
+        }
+
+        // Lay the words out in slot order
+        byte[][] bytes = new byte[nelems][];
+        int[] wordAt = new int[nelems];
+        long size = 0;
+        for (int i = 0; i < nelems; i++){
+            bytes[i] = words[i].getBytes(StandardCharsets.UTF_8);
+            size += bytes[i].length;
+            wordAt[finalSlot(slotOf[i])] = i;
+        }
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalStateException("Arena larger than 2GB");
+        byte[] packed = new byte[(int)size];
+        offsets = new int[nelems + 1];
+        int offset = 0;
+        for (int s = 0; s < nelems; s++){
+            byte[] word = bytes[wordAt[s]];
+            offsets[s] = offset;
+            System.arraycopy(word, 0, packed, offset, word.length);
+            offset += word.length;
+        }
+        offsets[nelems] = offset;
+        arena = ByteBuffer.wrap(packed);
+    }
+
+    /** Find a displacement for every bucket, largest buckets first.
+     * @param words distinct words
+     * @param seed hash seed to try
+     * @param buckets number of buckets
+     * @param slots number of slots
+     * @return build slot of each word, null if some bucket has no displacement
+     */
+    private int[] place(String[] words, int seed, int buckets, int slots){
+        int n = words.length;
+        long[] hashes = new long[n];
+        int[] start = new int[buckets + 1];
+        for (int i = 0; i < n; i++){
+            hashes[i] = hashFunction(words[i], seed);
+            start[bucket(hashes[i], buckets) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++)
+            start[b + 1] += start[b];
+        int[] members = new int[n];
+        int[] next = start.clone();
+        for (int i = 0; i < n; i++)
+            members[next[bucket(hashes[i], buckets)]++] = i;
+
+        // Order buckets by size, largest first
+        int maxSize = 0;
+        for (int b = 0; b < buckets; b++)
+            maxSize = Math.max(maxSize, start[b + 1] - start[b]);
+        int[] bySize = new int[maxSize + 2];
+        for (int b = 0; b < buckets; b++)
+            bySize[maxSize - (start[b + 1] - start[b]) + 1]++;
+        for (int k = 0; k <= maxSize; k++)
+            bySize[k + 1] += bySize[k];
+        int[] order = new int[buckets];
+        for (int b = 0; b < buckets; b++)
+            order[bySize[maxSize - (start[b + 1] - start[b])]++] = b;
+
+        boolean[] taken = new boolean[slots];
+        int[] slotOf = new int[n];
+        for (int b : order){
+            int from = start[b];
+            int to = start[b + 1];
+            if (from == to)
+                break;
+            boolean placed = false;
+            for (int d = 0; d <= Character.MAX_VALUE && !placed; d++){
+                placed = true;
+                for (int m = from; m < to; m++){
+                    int s = slot(hashes[members[m]], (char)d, slots);
+                    if (taken[s]){
+                        placed = false;
+                        // Undo the words of this bucket placed so far
+                        for (int u = from; u < m; u++)
+                            taken[slotOf[members[u]]] = false;
+                        break;
+                    }
+                    taken[s] = true;
+                    slotOf[members[m]] = s;
+                }
+                if (placed)
+                    displacements[b] = (char)d;
+            }
+            if (!placed)
+                return null;
+        }
+        return slotOf;
+    }
+
+    /** Not supported, a frozen table is immutable.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean insert(String value){
+        throw new UnsupportedOperationException("Frozen hash table is immutable");
+    }
+
+    /** Not supported, a frozen table is immutable.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean delete(String value){
+        throw new UnsupportedOperationException("Frozen hash table is immutable");
+    }
+
+    /** Determine if element exists in the table.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        if (nelems == 0)
+            return false;
+        int s = slotOf(hashFunction(value, seed));
+        return Utf8.equals(value, arena, offsets[s], offsets[s + 1] - offsets[s]);
+    }
+
+    /** Determine if the characters buf[off..off+len) form an element of the table.
+     * @param buf characters to look up
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        if (nelems == 0)
+            return false;
+        int s = slotOf(hashFunction(buf, off, len, seed));
+        return Utf8.equals(CharBuffer.wrap(buf, off, len), arena, offsets[s], offsets[s + 1] - offsets[s]);
+    }
+
+    /** Print out the hash table, one slot per line */
+    @Override
+    public void printTable() {
+        for (int s = 0; s < nelems; s++)
+            System.out.println(s+": "+word(s));
+    }
+
+    /** The number of elements currently store in the table.
+     * @return int the number of elements
+     */
+    @Override
+    public int getSize() {
+        return nelems;
+    }
+
+    /** Iterate over the words in slot order, decoding each from the arena.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        return new Iterator<String>(){
+            private int s = 0;
+
+            @Override
+            public boolean hasNext(){
+                return s < nelems;
+            }
+
+            @Override
+            public String next(){
+                if (s >= nelems)
+                    throw new NoSuchElementException();
+                return word(s++);
+            }
+        };
+    }
+
+    /** Decode the word of one slot.
+     * @param s slot index
+     * @return the word
+     */
+    private String word(int s){
+        byte[] bytes = new byte[offsets[s + 1] - offsets[s]];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = arena.get(offsets[s] + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Getter method for testing
+     * @return bits of displacements and redirections per word, arena offsets not included
+     */
+    public double getIndexBitsPerKey(){
+        return (nelems == 0) ? 0 : (displacements.length * 16.0 + remap.length * 32.0) / nelems;
+    }
+
+    /** Slot of a word, the only one it can be in.
+     * @param hash 64-bit hash of the word
+     * @return slot below nelems
+     */
+    private int slotOf(long hash){
+        int s = slot(hash, displacements[bucket(hash, displacements.length)], nelems + remap.length);
+        return finalSlot(s);
+    }
+
+    /** Redirect a build slot past the end.
+     * @param s build slot
+     * @return slot below nelems
+     */
+    private int finalSlot(int s){
+        return (s < nelems) ? s : remap[s - nelems];
+    }
+
+    /** Bucket of a word, from the high half of its hash.
+     * @param hash 64-bit hash of the word
+     * @param buckets number of buckets
+     * @return bucket index
+     */
+    private static int bucket(long hash, int buckets){
+        return (int)(((hash >>> 32) * buckets) >>> 32);
+    }
+
+    /** Build slot of a word for a displacement.
+     * @param hash 64-bit hash of the word
+     * @param d displacement of its bucket
+     * @param slots number of build slots
+     * @return slot index
+     */
+    private static int slot(long hash, char d, int slots){
+        long h = (hash + d * 0x9E3779B97F4A7C15L) * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 32;
+        return (int)(((h & 0xffffffffL) * slots) >>> 32);
+    }
+
+    /** 64-bit hash function for words, FNV-1a over the characters with a
+     * 64-bit finalizer. 32 bits would not do: among a few hundred thousand
+     * words some pair shares a 32-bit hash, and no displacement separates them.
+     * @param value The input String value
+     * @param seed hash seed
+     * @return 64-bit hash
+     */
+    private static long hashFunction(String value, int seed){
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++)
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        return finalizer(h);
+    }
+
+    /** Same as hashFunction(String, int) on buf[off..off+len).
+     * @param buf characters to hash
+     * @param off index of the first character
+     * @param len number of characters
+     * @param seed hash seed
+     * @return 64-bit hash
+     */
+    private static long hashFunction(char[] buf, int off, int len, int seed){
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = off; i < off + len; i++)
+            h = (h ^ buf[i]) * 0x100000001b3L;
+        return finalizer(h);
+    }
+
+    /** MurmurHash3 64-bit finalizer.
+     * @param h hash to mix
+     * @return mixed hash
+     */
+    private static long finalizer(long h){
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    public static void main(String[] args){
+        HashTable words = new HashTable(1);
+        for (int i = 0; i < 100000; i++)
+            words.insert("word" + i);
+        FrozenHashTable tester = words.freeze();
+        boolean all = true;
+        for (int i = 0; i < 100000; i++)
+            all &= tester.contains("word" + i);
+        boolean none = true;
+        for (int i = 100000; i < 200000; i++)
+            none &= !tester.contains("word" + i);
+        System.out.println("Words: " + tester.getSize() + ", index bits per word: " + tester.getIndexBitsPerKey());
+        System.out.println("Every word found: " + all + ", no absent word found: " + none);
+
+        // A small table, one word per slot
+        HashTable small = new HashTable(1);
+        for (String word : new String[]{"a", "b", "c", "d", "e"})
+            small.insert(word);
+        small.freeze().printTable();
+    }
+}
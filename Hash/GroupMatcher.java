@@ -0,0 +1,20 @@
+/** Scans a group of 16 control bytes of a SwissHashTable at once.
+ * <p>
+ * Bit i of a result stands for slot off + i. match may report false
+ * positives, which the table weeds out by comparing hashes; matchEmpty
+ * is exact.
+ */
+interface GroupMatcher {
+
+    /** Number of control bytes scanned at once. */
+    int GROUP = 16;
+
+    /** @return mask of the slots of ctrl[off..off+16) whose control byte is h2 */
+    long match(byte[] ctrl, int off, byte h2);
+
+    /** @return mask of the slots of ctrl[off..off+16) that are empty, not deleted */
+    long matchEmpty(byte[] ctrl, int off);
+
+    /** @return mask of the slots of ctrl[off..off+16) that are empty or deleted */
+    long matchFree(byte[] ctrl, int off);
+}
@@ -0,0 +1,33 @@
+/** Hash function used by a HashTable to turn a value into an int.
+ * <p>
+ * Implementations must return the same hash for equal values and the same
+ * seed. The seed lets each table pick its own function from the family so
+ * that input crafted against one table does not collide in another; that
+ * only holds if the seed is mixed in non-linearly, so that values which
+ * collide under one seed do not collide under every seed. The built-in
+ * functions are the constants of StandardHashStrategy, of which only
+ * MURMUR3 and FNV1A are seeded in that sense.
+ */
+public interface HashStrategy {
+
+	/** Hash the value.
+	 * 
+	 * @param value value to hash, not null
+	 * @param seed per-table seed
+	 * @return hash of the value, any int
+	 */
+	int hash(String value, int seed);
+	
+	/** Hash the characters buf[off..off+len), giving the same result as
+	 * hashing the equal String
+	 * 
+	 * @param buf characters to hash
+	 * @param off index of the first character
+	 * @param len number of characters
+	 * @param seed per-table seed
+	 * @return hash of the characters, any int
+	 */
+	default int hash(char[] buf, int off, int len, int seed) {
+		return hash(new String(buf, off, len), seed);
+	}
+}
@@ -1,10 +1,15 @@
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.text.DecimalFormat;
 import java.io.*;
 
-public class HashTable implements IHashTable {
+public class HashTable implements IHashTable, Iterable<String> {
 
-    //HashTable of LinkedLists. 
+    //HashTable of LinkedLists; long chains become TreeSets. 
 
     private int nelems;  //Number of element stored in the hash table
     private int expand;  //Number of times that the table has been expanded
@@ -13,7 +18,51 @@ public class HashTable implements IHashTable {
     private boolean printStats = false;   //Boolean to decide whether to write statistics to file or not after rehashing
     private int buckets; // Number of buckets in the hash table.
     private double loadFactor; //Load factor to tell when to expand.
-    private LinkedList<String>[] table; //Array to store elements
+    private Collection<Entry>[] table; //Array to store elements, each bucket a LinkedList or a TreeSet
+    private boolean incremental = false; //Boolean to decide whether to spread rehashing over later operations
+    private Collection<Entry>[] oldTable; //Table being migrated into table during an incremental rehash, null if none
+    private int migrated; //Number of buckets of oldTable already moved into table
+    private HashStrategy strategy = StandardHashStrategy.POLYNOMIAL; //Hash function of this table
+    private int seed = 0; //Seed passed to the hash function
+    private boolean powerOfTwo = false; //Boolean to decide whether buckets is kept a power of two and indexed by masking
+    //LongAdders: contains may run on many threads at once, see SpellChecker.checkAll
+    private final LongAdder lookups = new LongAdder(); //Number of searches by insert/delete/contains
+    private final LongAdder hits = new LongAdder(); //Number of searches that found the value
+    private final LongAdder probes = new LongAdder(); //Number of entries compared by all searches
+    private long rehashNanos; //Total time spent in resize
+    private long maxRehashNanos; //Longest single resize
+    private int minBuckets; //Initial size; automatic shrinking never goes below it
+    private double shrinkFactor = 1.0 / 6; //Load factor under which delete halves the table, 0 to never shrink
+    private int modCount; //Number of inserts, deletes and resizes, lets iterators detect modification
+    private int treeifyThreshold = 8; //Chain length over which a bucket becomes a TreeSet
+    private int treeified; //Number of buckets converted to a TreeSet
+
+    private static final int MIGRATE_BUCKETS = 4; //Buckets of oldTable moved per operation during an incremental rehash
+    //Boolean to decide whether to commit a RehashEvent per resize, set with -Dhashtable.jfr=true.
+    //Off by default because loading the JFR event classes stalls the first resize of the process.
+    private static final boolean JFR_EVENTS = Boolean.getBoolean("hashtable.jfr");
+
+    /** Element of a bucket. Keeps the hash of the value so that it is
+     * computed once per value and reused by lookups and rehashing. */
+    private static class Entry {
+        final String value;
+        final int hash;
+
+        Entry(String value, int hash){
+            this.value = value;
+            this.hash = hash;
+        }
+    }
+
+    /** Order of the entries of a treeified bucket: by hash, then by value. */
+    private static final Comparator<Entry> TREE_ORDER = new Comparator<Entry>(){
+        @Override
+        public int compare(Entry a, Entry b){
+            if (a.hash != b.hash)
+                return Integer.compare(a.hash, b.hash);
+            return a.value.compareTo(b.value);
+        }
+    };
 
     /**
      * Constructor for hash table
@@ -22,8 +71,9 @@ public class HashTable implements IHashTable {
     public HashTable(int size) throws IllegalArgumentException{
         if (size <= 0 )
             throw new IllegalArgumentException();
-        table = new LinkedList[size];
+        table = new Collection[size];
         buckets = size;
+        minBuckets = size;
         loadFactor = ((double)nelems / buckets);
         nelems = 0;
         expand = 1;
@@ -39,8 +89,9 @@ public class HashTable implements IHashTable {
     public HashTable(int size, String fileName)throws IllegalArgumentException{
         if (size <= 0 )
             throw new IllegalArgumentException();
-        table = new LinkedList[size];
+        table = new Collection[size];
         buckets = size;
+        minBuckets = size;
         loadFactor = ((double)nelems / buckets);
         nelems = 0;
         expand = 1;
@@ -49,7 +100,50 @@ public class HashTable implements IHashTable {
         statsFileName = fileName;
     }
 
+    /**
+     * Constructor for hash table with a chosen hash function.
+     * The function is given a random per-table seed, which keeps input
+     * crafted against one table from colliding in another only for the
+     * seeded strategies, MURMUR3 and FNV1A.
+     * @param Initial size of the hash table
+     * @param strategy Hash function to use, e.g. StandardHashStrategy.MURMUR3
+     * @param powerOfTwo true to round the size up to a power of two and index by bit masking
+     */
+    public HashTable(int size, HashStrategy strategy, boolean powerOfTwo) throws IllegalArgumentException{
+        this(powerOfTwo ? tableSizeFor(size) : size);
+        setHashStrategy(strategy, powerOfTwo);
+    }
+
+    /**
+     * Constructor for hash table with a chosen hash function.
+     * The function is given a random per-table seed, which keeps input
+     * crafted against one table from colliding in another only for the
+     * seeded strategies, MURMUR3 and FNV1A.
+     * @param Initial size of the hash table
+     * @param File path to write statistics
+     * @param strategy Hash function to use, e.g. StandardHashStrategy.MURMUR3
+     * @param powerOfTwo true to round the size up to a power of two and index by bit masking
+     */
+    public HashTable(int size, String fileName, HashStrategy strategy, boolean powerOfTwo) throws IllegalArgumentException{
+        this(powerOfTwo ? tableSizeFor(size) : size, fileName);
+        setHashStrategy(strategy, powerOfTwo);
+    }
+
+    /** Set up the hash function of a newly constructed table.
+     * @param strategy Hash function to use
+     * @param powerOfTwo true if buckets is a power of two
+     */
+    private void setHashStrategy(HashStrategy strategy, boolean powerOfTwo) throws NullPointerException{
+        if (strategy == null)
+            throw new NullPointerException();
+        this.strategy = strategy;
+        this.powerOfTwo = powerOfTwo;
+        seed = ThreadLocalRandom.current().nextInt();
+    }
+
     /** Insert the value.
+     * The value is hashed once and each candidate bucket is walked once;
+     * the value is appended to its bucket only if that walk did not find it.
      * @param value to insert
      * @return true if item has been inserted, false if there already exists the same item.
      */
@@ -57,24 +151,32 @@ public class HashTable implements IHashTable {
     public boolean insert(String value) throws NullPointerException{
         if (value == null)
             throw new NullPointerException();
+        return add(value, true);
+    }
+
+    /** Insert the value if absent.
+     * @param value to insert, not null
+     * @param grow true to check the load factor and expand after inserting
+     * @return true if item has been inserted, false if there already exists the same item.
+     */
+    private boolean add(String value, boolean grow){
+        migrateStep();
+        int hash = hashFunction(value);
+        int index = indexFor(hash, buckets);
 
         // Insert if not duplicate
-        else if (!contains(value)){
+        boolean found = find(table[index], hash, value) != null || inOldTable(hash, value);
+        recordLookup(found);
+        if (!found){
             // Collision
-            if (table[hashFunction(value)] != null){
-                table[hashFunction(value)].add(value);
+            if (addEntry(table, index, new Entry(value, hash)))
                 collision++;
-            }
-            // First insertion of the bucket
-            else{
-                table[hashFunction(value)] = new LinkedList<String>();
-                table[hashFunction(value)].add(value);
-            }
             // Update statistics
             nelems++;
+            modCount++;
             loadFactor = ((double)nelems / buckets);
 
-            if (loadFactor > ((double)2/3)){
+            if (grow && loadFactor > ((double)2/3)){
                 //				System.out.println("Insert_loadFactor excess. call rehash()");
                 rehash();
             }
@@ -85,6 +187,54 @@ public class HashTable implements IHashTable {
         return false;
     }
 
+    /** Insert every value, sizing the table once up front.
+     * Duplicates, within the collection or already in the table, are
+     * skipped during the same single walk of each bucket.
+     * @param values values to insert
+     * @return number of values inserted
+     */
+    @Override
+    public int insertAll(Collection<String> values) throws NullPointerException{
+        ensureCapacity(nelems + values.size());
+        int inserted = 0;
+        for (String value : values){
+            if (value == null)
+                throw new NullPointerException();
+            if (add(value, false))
+                inserted++;
+        }
+        // In case the collection held more values than its size reported
+        if (loadFactor > ((double)2/3))
+            rehash();
+        return inserted;
+    }
+
+    /** Expand the table once so that it holds the given number of
+     * elements without going over the load factor.
+     * @param expectedSize number of elements the table should hold
+     */
+    @Override
+    public void ensureCapacity(int expectedSize){
+        int size = (int)Math.min(Integer.MAX_VALUE, (long)expectedSize * 3 / 2 + 1);
+        if (powerOfTwo)
+            size = tableSizeFor(size);
+        if (size > buckets)
+            resize(size);
+    }
+
+    /** Create a table sized for the given number of elements, so that
+     * inserting them never triggers a rehash.
+     * @param expectedSize number of elements the table should hold
+     * @return empty HashTable
+     */
+    public static HashTable withExpectedSize(int expectedSize) throws IllegalArgumentException{
+        if (expectedSize < 0)
+            throw new IllegalArgumentException();
+        HashTable table = new HashTable(1);
+        table.ensureCapacity(expectedSize);
+        return table;
+    }
+
     /** Delete the value.
      * @param value to delete
      * @return true if item has been deleted, false if there is no such item.
@@ -93,16 +243,61 @@ public class HashTable implements IHashTable {
     public boolean delete(String value) throws NullPointerException{
         if (value == null)
             throw new NullPointerException();
-        else if (contains(value)){
-            table[hashFunction(value)].remove(value);
+        migrateStep();
+        int hash = hashFunction(value);
+        Collection<Entry>[] tab = table;
+        int index = indexFor(hash, buckets);
+        Entry e = find(tab[index], hash, value);
+        if (e == null && oldTable != null){
+            tab = oldTable;
+            index = indexFor(hash, oldTable.length);
+            e = find(tab[index], hash, value);
+        }
+        recordLookup(e != null);
+        if (e != null){
+            tab[index].remove(e);
+            // Release the empty bucket
+            if (tab[index].isEmpty())
+                tab[index] = null;
+            else if (tab[index] instanceof TreeSet && tab[index].size() <= untreeifyThreshold())
+                tab[index] = new LinkedList<Entry>(tab[index]);
             nelems--;
+            modCount++;
             loadFactor = ((double)nelems / buckets);
+
+            // Halve the table, but not back to a size the next inserts would grow out of
+            if (loadFactor < shrinkFactor && buckets / 2 >= minBuckets)
+                resize(powerOfTwo ? buckets / 2 : Math.max(minBuckets, buckets / 2));
             return true;
         }
         else
             return false;
     }
 
+    /** Shrink the table to the fewest buckets that keep the load factor
+     * at or under its threshold, releasing all empty buckets.
+     * Unlike automatic shrinking this may go below the initial size.
+     */
+    public void trimToSize(){
+        int size = (int)Math.max(1, ((long)nelems * 3 + 1) / 2);
+        if (powerOfTwo)
+            size = tableSizeFor(size);
+        if (size < buckets)
+            resize(size);
+    }
+
+    /** Copy the table into an immutable table indexed by a minimal perfect hash,
+     * for dictionaries that are only read after loading. This table is unchanged.
+     * @return the frozen copy
+     */
+    public FrozenHashTable freeze(){
+        String[] words = new String[nelems];
+        int i = 0;
+        for (String word : this)
+            words[i++] = word;
+        return new FrozenHashTable(words);
+    }
+
     /** Determine if element exists in the table.
      * @param value to look for
      * @return true if exists, false if not.
@@ -111,29 +306,311 @@ public class HashTable implements IHashTable {
     public boolean contains(String value) throws NullPointerException{
         if (value == null)
             throw new NullPointerException();
-        if (table[hashFunction(value)]== null)
+        migrateStep();
+        boolean found = bucketOf(value, hashFunction(value)) != null;
+        recordLookup(found);
+        return found;
+    }
+
+    /** Determine if the characters buf[off..off+len) form an element of the table,
+     * without creating a String.
+     * @param buf characters to look up
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        migrateStep();
+        int hash = strategy.hash(buf, off, len, seed);
+        boolean found = find(table[indexFor(hash, buckets)], hash, buf, off, len) != null
+            || (oldTable != null && find(oldTable[indexFor(hash, oldTable.length)], hash, buf, off, len) != null);
+        recordLookup(found);
+        return found;
+    }
+
+    /** Find the bucket that holds the value.
+     * During an incremental rehash the value may still be in oldTable.
+     * @param value to look for
+     * @param hash hash of the value
+     * @return the bucket containing the value, null if no such value exists.
+     */
+    private Collection<Entry> bucketOf(String value, int hash){
+        Collection<Entry> bucket = table[indexFor(hash, buckets)];
+        if (find(bucket, hash, value) != null)
+            return bucket;
+        if (oldTable != null){
+            bucket = oldTable[indexFor(hash, oldTable.length)];
+            if (find(bucket, hash, value) != null)
+                return bucket;
+        }
+        return null;
+    }
+
+    /** Check whether the value is waiting in oldTable during an incremental rehash.
+     * @param hash hash of the value
+     * @param value to look for
+     * @return true if oldTable holds the value
+     */
+    private boolean inOldTable(int hash, String value){
+        return oldTable != null && find(oldTable[indexFor(hash, oldTable.length)], hash, value) != null;
+    }
+
+    /** Walk a bucket looking for the value.
+     * Stored hashes are compared first so that equals runs only on likely matches.
+     * A treeified bucket is searched in O(log n) instead.
+     * @param bucket bucket to walk, may be null
+     * @param hash hash of the value
+     * @param value to look for
+     * @return the entry holding the value, null if no such value exists.
+     */
+    private Entry find(Collection<Entry> bucket, int hash, String value){
+        if (bucket == null)
+            return null;
+        if (bucket instanceof TreeSet){
+            probes.add(treeDepth(bucket));
+            Entry e = ((TreeSet<Entry>)bucket).ceiling(new Entry(value, hash));
+            return (e != null && e.hash == hash && e.value.equals(value)) ? e : null;
+        }
+        int compared = 0;
+        for (Entry e : bucket){
+            compared++;
+            if (e.hash == hash && e.value.equals(value)){
+                probes.add(compared);
+                return e;
+            }
+        }
+        probes.add(compared);
+        return null;
+    }
+
+    /** Walk a bucket looking for the characters buf[off..off+len).
+     * @param bucket bucket to walk, may be null
+     * @param hash hash of the characters
+     * @param buf characters to look for
+     * @param off index of the first character
+     * @param len number of characters
+     * @return the entry holding the characters, null if no such value exists.
+     */
+    private Entry find(Collection<Entry> bucket, int hash, char[] buf, int off, int len){
+        if (bucket == null)
+            return null;
+        if (bucket instanceof TreeSet){
+            probes.add(treeDepth(bucket));
+            // "" sorts first among the values with this hash
+            for (Entry e : ((TreeSet<Entry>)bucket).tailSet(new Entry("", hash))){
+                if (e.hash != hash)
+                    break;
+                if (Chars.regionEquals(e.value, buf, off, len))
+                    return e;
+            }
+            return null;
+        }
+        int compared = 0;
+        for (Entry e : bucket){
+            compared++;
+            if (e.hash == hash && Chars.regionEquals(e.value, buf, off, len)){
+                probes.add(compared);
+                return e;
+            }
+        }
+        probes.add(compared);
+        return null;
+    }
+
+    /** Count a search for the statistics.
+     * @param found true if the value was found
+     */
+    private void recordLookup(boolean found){
+        lookups.increment();
+        if (found)
+            hits.increment();
+    }
+
+    /** Append an entry to a bucket of the given table, treeifying the
+     * bucket once it grows past the threshold.
+     * @param tab table to insert into
+     * @param index bucket index
+     * @param e entry to append
+     * @return true if the bucket was not empty
+     */
+    private boolean addEntry(Collection<Entry>[] tab, int index, Entry e){
+        // First insertion of the bucket
+        if (tab[index] == null){
+            tab[index] = new LinkedList<Entry>();
+            tab[index].add(e);
             return false;
-        else{
-            ListIterator<String> it = table[hashFunction(value)].listIterator();
-            while (it.hasNext()){
-                if (it.next().equals(value))
-                    return true;
+        }
+        tab[index].add(e);
+        if (tab[index] instanceof LinkedList && tab[index].size() > treeifyThreshold){
+            TreeSet<Entry> tree = new TreeSet<Entry>(TREE_ORDER);
+            tree.addAll(tab[index]);
+            tab[index] = tree;
+            treeified++;
+        }
+        return true;
+    }
+
+    /** Number of entries a search of a treeified bucket compares, for the statistics.
+     * @param bucket treeified bucket
+     * @return depth of a balanced tree of that size
+     */
+    private static int treeDepth(Collection<Entry> bucket){
+        return 32 - Integer.numberOfLeadingZeros(bucket.size());
+    }
+
+    /** Chain length at or under which a treeified bucket turns back into a list.
+     * Lower than the treeify threshold so that a bucket does not flip at every insert and delete.
+     * @return untreeify threshold
+     */
+    private int untreeifyThreshold(){
+        return treeifyThreshold * 3 / 4;
+    }
+
+    /** Iterate over the elements in bucket order.
+     * Finishes a pending incremental rehash first. The iterator is fail-fast:
+     * it throws ConcurrentModificationException if the table is modified other
+     * than through the iterator itself, which does not support remove.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        return Spliterators.iterator(spliterator());
+    }
+
+    /** Spliterator over the elements that splits by bucket ranges.
+     * Every split knows its exact size, so it reports SIZED and SUBSIZED.
+     * Finishes a pending incremental rehash first.
+     * @return spliterator over the elements
+     */
+    @Override
+    public Spliterator<String> spliterator(){
+        completeRehash();
+        return new BucketSpliterator(table, 0, table.length, nelems, modCount);
+    }
+
+    /** Sequential stream over the elements.
+     * @return stream of the elements
+     */
+    public Stream<String> stream(){
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /** Parallel stream over the elements. The table must not be modified
+     * while the stream runs.
+     * @return possibly parallel stream of the elements
+     */
+    public Stream<String> parallelStream(){
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /** Spliterator over a range of buckets of one table. */
+    private final class BucketSpliterator implements Spliterator<String> {
+        private final Collection<Entry>[] tab; //Table being traversed
+        private int lo; //Next bucket to traverse
+        private final int hi; //One past the last bucket to traverse
+        private long size; //Number of elements left in buckets lo..hi, plus in current
+        private final int expectedModCount; //modCount when the traversal started
+        private Iterator<Entry> current; //Bucket being traversed, null between buckets
+
+        BucketSpliterator(Collection<Entry>[] tab, int lo, int hi, long size, int expectedModCount){
+            this.tab = tab;
+            this.lo = lo;
+            this.hi = hi;
+            this.size = size;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action){
+            if (action == null)
+                throw new NullPointerException();
+            while (current == null || !current.hasNext()){
+                if (lo >= hi){
+                    current = null;
+                    return false;
+                }
+                current = (tab[lo] == null) ? null : tab[lo].iterator();
+                lo++;
             }
+            String value = current.next().value;
+            size--;
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            action.accept(value);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super String> action){
+            if (action == null)
+                throw new NullPointerException();
+            while (current != null && current.hasNext())
+                action.accept(current.next().value);
+            current = null;
+            for (; lo < hi; lo++){
+                if (tab[lo] != null){
+                    for (Entry e : tab[lo])
+                        action.accept(e.value);
+                }
+            }
+            size = 0;
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        /** Split off the lower half of the remaining buckets.
+         * Counting the lower half reads one size per bucket, which is cheap
+         * next to traversing it and keeps both halves exactly sized.
+         */
+        @Override
+        public Spliterator<String> trySplit(){
+            int mid = (lo + hi) >>> 1;
+            if (current != null || mid <= lo)
+                return null;
+            long lowSize = 0;
+            for (int i = lo; i < mid; i++){
+                if (tab[i] != null)
+                    lowSize += tab[i].size();
+            }
+            BucketSpliterator low = new BucketSpliterator(tab, lo, mid, lowSize, expectedModCount);
+            lo = mid;
+            size -= lowSize;
+            return low;
+        }
+
+        @Override
+        public long estimateSize(){
+            return size;
+        }
+
+        @Override
+        public int characteristics(){
+            return DISTINCT | NONNULL | SIZED | SUBSIZED;
         }
-        return false;
     }
 
-    /** Print out the hash table */
+    /** Print out the hash table.
+     * Finishes a pending incremental rehash first so every item is printed in its bucket.
+     */
     @Override
     public void printTable() {
+        completeRehash();
         for (int i = 0; i < table.length; i++){
             System.out.print(i+": ");
             if (table[i] == null)
                 System.out.println();
             else{
-                for (int j = 0; j < table[i].size()-1; j++)
-                    System.out.print(table[i].get(j)+", ");
-                System.out.println(table[i].get(table[i].size()-1));
+                Iterator<Entry> it = table[i].iterator();
+                while (it.hasNext()){
+                    String value = it.next().value;
+                    if (it.hasNext())
+                        System.out.print(value+", ");
+                    else
+                        System.out.println(value);
+                }
             }
         }
     }
@@ -147,41 +624,125 @@ public class HashTable implements IHashTable {
     }
 
     /** Expand and rehash the items into the table 
-     * when load factor goes over threshold. */
+     * when load factor goes over threshold.
+     * In incremental mode only the new table is allocated here; the items
+     * are moved a few buckets at a time by later operations. */
     private void rehash(){
+        resize(buckets*2);
+    }
+
+    /** Rehash the items into a table with the given number of buckets.
+     * @param newBuckets number of buckets of the new table
+     */
+    private void resize(int newBuckets){
+        // Never keep more than two tables around
+        completeRehash();
+
+        RehashEvent event = null;
+        if (JFR_EVENTS){
+            event = new RehashEvent();
+            event.begin();
+            event.oldBuckets = buckets;
+            event.newBuckets = newBuckets;
+            event.elements = nelems;
+            event.incremental = incremental;
+        }
+        long start = System.nanoTime();
+
         if (printStats){
             //			System.out.println("Rehash()_got into rehash(); printStats");
             printStatistics();
         }
 
         // Resize
-        LinkedList<String>[] newTable = new LinkedList[buckets*2];
-        buckets = 2 * buckets;
+        Collection<Entry>[] newTable = new Collection[newBuckets];
+        buckets = newBuckets;
         expand++;
+        modCount++;
+
+        loadFactor = ((double)nelems / buckets);
+        collision = 0;
+        oldTable = table;
+        migrated = 0;
+        table = newTable;
 
         // Rehash
-        for (int i = 0; i < table.length; i++){
-            // If the bucket has items
-            if (table[i] != null){
-                ListIterator<String> it = table[i].listIterator();
-                while (it.hasNext()){
-                    String item = it.next();
-                    // Insert to new table with collision
-                    if (newTable[hashFunction(item)] != null)
-                        newTable[hashFunction(item)].add(item);
-                    // Insert for the first time
-                    else{
-                        newTable[hashFunction(item)] = new LinkedList<String>();
-                        newTable[hashFunction(item)].add(item);
-                    }
-                }
+        if (!incremental)
+            completeRehash();
+        //		System.out.println("Rehash()_Completed rehashing");
+
+        long elapsed = System.nanoTime() - start;
+        if (event != null)
+            event.commit();
+        rehashNanos += elapsed;
+        maxRehashNanos = Math.max(maxRehashNanos, elapsed);
+    }
+
+    /** Move the next few buckets of oldTable into table.
+     * Called at the start of every insert/delete/contains so that an
+     * incremental rehash finishes long before the next one is due.
+     */
+    private void migrateStep(){
+        if (oldTable != null)
+            migrate(MIGRATE_BUCKETS);
+    }
+
+    /** Finish a pending incremental rehash by moving every remaining bucket. */
+    public void completeRehash(){
+        if (oldTable != null)
+            migrate(oldTable.length - migrated);
+    }
+
+    /** Move buckets of oldTable into table.
+     * @param count number of old buckets to move
+     */
+    private void migrate(int count){
+        int end = Math.min(oldTable.length, migrated + count);
+        for (; migrated < end; migrated++){
+            // If the bucket has items, move them using their stored hash
+            if (oldTable[migrated] != null){
+                for (Entry e : oldTable[migrated])
+                    addEntry(table, indexFor(e.hash, buckets), e);
+                oldTable[migrated] = null;
             }
         }
-        //		System.out.println("Rehash()_Completed rehashing");
+        if (migrated == oldTable.length)
+            oldTable = null;
+    }
 
-        loadFactor = ((double)nelems / buckets);
-        collision = 0;
-        table = newTable;
+    /** Take a snapshot of the health counters.
+     * The chain length histogram is computed by scanning the buckets now;
+     * every other counter is kept up to date by the operations themselves.
+     * @return statistics of this table
+     */
+    public HashTableStats getStatistics(){
+        int longest = 0;
+        List<Collection<Entry>[]> tables = new ArrayList<Collection<Entry>[]>(2);
+        tables.add(table);
+        if (oldTable != null)
+            tables.add(oldTable);
+        for (Collection<Entry>[] tab : tables){
+            for (Collection<Entry> bucket : tab){
+                if (bucket != null)
+                    longest = Math.max(longest, bucket.size());
+            }
+        }
+        int[] chainLengths = new int[longest + 1];
+        for (Collection<Entry>[] tab : tables){
+            for (Collection<Entry> bucket : tab)
+                chainLengths[(bucket == null) ? 0 : bucket.size()]++;
+        }
+        return new HashTableStats(nelems, buckets, lookups.sum(), hits.sum(), probes.sum(),
+                expand - 1, rehashNanos, maxRehashNanos, chainLengths);
+    }
+
+    /** Reset the lookup and rehash timing counters to zero. */
+    public void resetStatistics(){
+        lookups.reset();
+        hits.reset();
+        probes.reset();
+        rehashNanos = 0;
+        maxRehashNanos = 0;
     }
 
     /** Trim decimals 2 decimal places.
@@ -228,7 +789,9 @@ public class HashTable implements IHashTable {
             pw.print(collision);
             pw.print(" collisions, ");
             pw.print(longest_chain);
-            pw.println(" longest chain");
+            pw.print(" longest chain, ");
+            pw.print(treeified);
+            pw.println(" treeified buckets");
             pw.close();
             //			System.out.println("Write successful");
         }
@@ -238,28 +801,48 @@ public class HashTable implements IHashTable {
     }
 
     /** Hash function to assign key to each element.
+     * The hash does not depend on the table size, so it is stored with
+     * the element and reused when the table is resized.
      * @param value The input String value
-     * @return Integer key that stores the value
+     * @return Integer hash of the value
      */
     private int hashFunction(String value){
-        int hashKey = value.charAt(0);
-        for (int i = 1; i < value.length(); i++){
-            int letter = value.charAt(i);
-            hashKey = (hashKey * 53	+ letter) % buckets;
-        }
-        return hashKey % buckets;
+        return strategy.hash(value, seed);
+    }
+
+    /** Map a hash to a bucket.
+     * @param hash hash of the value
+     * @param size Number of buckets of the table to index
+     * @return bucket index
+     */
+    private int indexFor(int hash, int size){
+        if (powerOfTwo)
+            return hash & (size - 1);
+        return (hash & 0x7fffffff) % size;
+    }
+
+    /** Round the requested size up to a power of two.
+     * @param size requested size
+     * @return smallest power of two not less than size
+     */
+    private static int tableSizeFor(int size){
+        int capacity = Integer.highestOneBit(size);
+        return (capacity < size) ? capacity << 1 : capacity;
     }
 
     /** Search for the given value.
      * @param value value to search.
-     * @return the index in the LinkedList if the value exists. Returns -1 if no such value exists.
+     * @return the index in the bucket if the value exists. Returns -1 if no such value exists.
      */
     private int search(String value){
-        if (contains(value)){
-            ListIterator<String> it = table[hashFunction(value)].listIterator();
-            while (it.hasNext()){
-                if (it.next().equals(value))
-                    return it.previousIndex();
+        int hash = hashFunction(value);
+        Collection<Entry> bucket = bucketOf(value, hash);
+        if (bucket != null){
+            int index = 0;
+            for (Entry e : bucket){
+                if (e.hash == hash && e.value.equals(value))
+                    return index;
+                index++;
             }
             return -1;
         }
@@ -280,6 +863,66 @@ public class HashTable implements IHashTable {
         return printStats;
     }
 
+    /** Getter method for testing
+     * @return hash function of this table
+     */
+    public HashStrategy getHashStrategy(){
+        return strategy;
+    }
+
+    /** Setter for the rehash mode.
+     * When on, an expansion moves at most a few buckets per later
+     * insert/delete/contains instead of stalling the triggering insert.
+     * Turning it off finishes any pending incremental rehash.
+     * @param incremental true to rehash incrementally
+     */
+    public void setIncrementalRehash(boolean incremental){
+        this.incremental = incremental;
+        if (!incremental)
+            completeRehash();
+    }
+
+    /** Setter for the low-water mark of automatic shrinking.
+     * A delete that drops the load factor under this value halves the table,
+     * but never below its initial size. The value must stay under half of the
+     * 2/3 expansion threshold so that a halved table is not expanded again by
+     * the next few inserts.
+     * @param shrinkFactor load factor under which to shrink, 0 to never shrink
+     * @throws IllegalArgumentException if shrinkFactor is negative or not under 1/3
+     */
+    public void setShrinkThreshold(double shrinkFactor) throws IllegalArgumentException{
+        if (!(shrinkFactor >= 0 && shrinkFactor < (double)1/3))
+            throw new IllegalArgumentException();
+        this.shrinkFactor = shrinkFactor;
+    }
+
+    /** Setter for the chain length over which a bucket is converted to a
+     * TreeSet ordered by hash and value, making searches of that bucket
+     * O(log n). A treeified bucket turns back into a list once it shrinks to
+     * 3/4 of the threshold. Existing buckets convert on their next change.
+     * @param treeifyThreshold chain length, at least 2
+     * @throws IllegalArgumentException if treeifyThreshold is less than 2
+     */
+    public void setTreeifyThreshold(int treeifyThreshold) throws IllegalArgumentException{
+        if (treeifyThreshold < 2)
+            throw new IllegalArgumentException();
+        this.treeifyThreshold = treeifyThreshold;
+    }
+
+    /** Getter method for statistics
+     * @return number of buckets converted to a TreeSet so far
+     */
+    public int getTreeifyCount(){
+        return treeified;
+    }
+
+    /** Getter method for testing
+     * @return true if an incremental rehash is still in progress
+     */
+    public boolean isRehashing(){
+        return oldTable != null;
+    }
+
     public static void main(String[] args){
         HashTable tester = new HashTable(1, "testerWrite.txt");
         System.out.println("This is for a");
@@ -293,5 +936,46 @@ public class HashTable implements IHashTable {
         System.out.println("This is for e");
         tester.insert("e");
         tester.printTable();
+
+        // Incremental rehash: later operations move the buckets of the old table
+        HashTable incremental = new HashTable(1);
+        incremental.setIncrementalRehash(true);
+        int words = 0;
+        while (words < 20 || !incremental.isRehashing())
+            incremental.insert("word" + words++);
+        System.out.println("Rehashing after " + words + " words, buckets: " + incremental.getBuckets());
+        boolean found = true;
+        for (int i = 0; i < words; i++)
+            found &= incremental.contains("word" + i);
+        System.out.println("All words found during the rehash: " + found);
+        incremental.completeRehash();
+        System.out.println("Rehashing after completeRehash: " + incremental.isRehashing());
+        incremental.printTable();
+
+        // Shrinking: deletes that drop the load factor halve the table
+        HashTable shrinking = new HashTable(4);
+        shrinking.setShrinkThreshold(0.1);
+        for (int i = 0; i < 100; i++)
+            shrinking.insert("word" + i);
+        System.out.println("Buckets with 100 words: " + shrinking.getBuckets());
+        for (int i = 0; i < 95; i++)
+            shrinking.delete("word" + i);
+        System.out.println("Buckets with 5 words: " + shrinking.getBuckets());
+        shrinking.printTable();
+
+        // Treeified buckets: "Aa" and "BB" share a hashCode, so all 16 words collide
+        HashTable colliding = new HashTable(16, StandardHashStrategy.STRING_HASHCODE, true);
+        colliding.setTreeifyThreshold(4);
+        for (int i = 0; i < 16; i++){
+            StringBuilder word = new StringBuilder();
+            for (int bit = 0; bit < 4; bit++)
+                word.append(((i >> bit) & 1) == 0 ? "Aa" : "BB");
+            colliding.insert(word.toString());
+        }
+        System.out.println("Treeified buckets: " + colliding.getTreeifyCount()
+                + ", longest chain: " + colliding.getStatistics().getLongestChain());
+        System.out.println("Contains BBBBBBBB: " + colliding.contains("BBBBBBBB")
+                + ", contains AaAaAaBA: " + colliding.contains("AaAaAaBA"));
+        colliding.printTable();
     }
 }
@@ -0,0 +1,126 @@
+import java.util.Arrays;
+
+/** Snapshot of the health counters of a HashTable, see HashTable.getStatistics.
+ * <p>
+ * A lookup is any search for a value by insert, delete or contains; a hit
+ * is a lookup that found the value. Probes count the entries compared while
+ * searching.
+ */
+public class HashTableStats {
+
+    private final int size;
+    private final int buckets;
+    private final long lookups;
+    private final long hits;
+    private final long probes;
+    private final int rehashes;
+    private final long rehashNanos;
+    private final long maxRehashNanos;
+    private final int[] chainLengths;
+
+    /**
+     * Constructor, called by HashTable.
+     * @param size number of elements
+     * @param buckets number of buckets
+     * @param lookups number of lookups
+     * @param hits number of lookups that found the value
+     * @param probes number of entries compared by all lookups
+     * @param rehashes number of resizes
+     * @param rehashNanos total time spent resizing
+     * @param maxRehashNanos longest single resize
+     * @param chainLengths chainLengths[k] is the number of buckets holding k elements
+     */
+    HashTableStats(int size, int buckets, long lookups, long hits, long probes,
+            int rehashes, long rehashNanos, long maxRehashNanos, int[] chainLengths){
+        this.size = size;
+        this.buckets = buckets;
+        this.lookups = lookups;
+        this.hits = hits;
+        this.probes = probes;
+        this.rehashes = rehashes;
+        this.rehashNanos = rehashNanos;
+        this.maxRehashNanos = maxRehashNanos;
+        this.chainLengths = chainLengths;
+    }
+
+    /** @return number of elements */
+    public int getSize(){
+        return size;
+    }
+
+    /** @return number of buckets */
+    public int getBuckets(){
+        return buckets;
+    }
+
+    /** @return elements per bucket */
+    public double getLoadFactor(){
+        return (double)size / buckets;
+    }
+
+    /** @return number of lookups */
+    public long getLookups(){
+        return lookups;
+    }
+
+    /** @return number of lookups that found the value */
+    public long getHits(){
+        return hits;
+    }
+
+    /** @return number of lookups that did not find the value */
+    public long getMisses(){
+        return lookups - hits;
+    }
+
+    /** @return fraction of lookups that found the value, 0 if there were none */
+    public double getHitRatio(){
+        return (lookups == 0) ? 0 : (double)hits / lookups;
+    }
+
+    /** @return number of entries compared by all lookups */
+    public long getProbes(){
+        return probes;
+    }
+
+    /** @return average number of entries compared per lookup, 0 if there were none */
+    public double getProbesPerLookup(){
+        return (lookups == 0) ? 0 : (double)probes / lookups;
+    }
+
+    /** @return number of resizes */
+    public int getRehashCount(){
+        return rehashes;
+    }
+
+    /** @return total time spent resizing, in nanoseconds */
+    public long getRehashNanos(){
+        return rehashNanos;
+    }
+
+    /** @return longest single resize, in nanoseconds */
+    public long getMaxRehashNanos(){
+        return maxRehashNanos;
+    }
+
+    /** @return length of the longest chain */
+    public int getLongestChain(){
+        return chainLengths.length - 1;
+    }
+
+    /** Chain length histogram.
+     * @return array where element k is the number of buckets holding k elements
+     */
+    public int[] getChainLengthHistogram(){
+        return chainLengths.clone();
+    }
+
+    @Override
+    public String toString(){
+        return "size=" + size + ", buckets=" + buckets
+            + ", lookups=" + lookups + ", hits=" + hits
+            + ", probes=" + probes + ", rehashes=" + rehashes
+            + ", rehashNanos=" + rehashNanos + ", maxRehashNanos=" + maxRehashNanos
+            + ", chainLengths=" + Arrays.toString(chainLengths);
+    }
+}
@@ -1,4 +1,7 @@
-public interface IHashTable {
+import java.util.Collection;
+import java.util.Iterator;
+
+public interface IHashTable extends Iterable<String> {
 
 	/** Insert the string value into the hash table
 	 * 
@@ -24,6 +27,33 @@ public interface IHashTable {
 	 */
 	boolean contains(String value);
 	
+	/** Check if the characters buf[off..off+len) form a value present in the
+	 * hash table. Implementations should avoid creating a String for the check
+	 * 
+	 * @param buf characters to look up
+	 * @param off index of the first character
+	 * @param len number of characters
+	 * @throws NullPointerException if buf is null
+	 * @return true if the value was found, false if the value was not found
+	 */
+	default boolean contains(char[] buf, int off, int len) {
+		return contains(new String(buf, off, len));
+	}
+	
+	/** Check if some value may start with the characters buf[off..off+len).
+	 * A false answer lets callers skip every value with that prefix. Returns
+	 * true by default, for tables that cannot answer prefix questions
+	 * 
+	 * @param buf characters of the prefix
+	 * @param off index of the first character
+	 * @param len number of characters
+	 * @throws NullPointerException if buf is null
+	 * @return false if no value starts with the prefix
+	 */
+	default boolean mayHavePrefix(char[] buf, int off, int len) {
+		return true;
+	}
+	
 	/** Print the contents of the hash table. Print nothing if table is empty
 	 * 
 	 * Example output for this function:
@@ -42,4 +72,37 @@ public interface IHashTable {
 	 * @return nelems
 	 */
 	int getSize();
+	
+	/** Iterate over the values of the hash table, in no particular order.
+	 * Lets callers rebuild structures that must hold every value
+	 * 
+	 * @return iterator over the values
+	 */
+	@Override
+	Iterator<String> iterator();
+	
+	/** Insert every value of the collection, as if by calling insert for
+	 * each of them, after sizing the table for the whole collection
+	 * 
+	 * @param values values to insert
+	 * @throws NullPointerException if a value is null
+	 * @return number of values that were inserted
+	 */
+	default int insertAll(Collection<String> values) {
+		ensureCapacity(getSize() + values.size());
+		int inserted = 0;
+		for (String value : values) {
+			if (insert(value))
+				inserted++;
+		}
+		return inserted;
+	}
+	
+	/** Hint that the table is about to hold the given number of values,
+	 * so it can grow once instead of repeatedly. Does nothing by default
+	 * 
+	 * @param expectedSize number of values the table should hold
+	 */
+	default void ensureCapacity(int expectedSize) {
+	}
 }
@@ -0,0 +1,268 @@
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Hash set of int values in one flat int array, without boxing.
+ * <p>
+ * Slots are probed linearly and 0 marks an empty slot, so the value 0
+ * itself is kept in a separate flag. Deletion shifts later slots of the
+ * cluster back instead of leaving tombstones. The contract of insert,
+ * delete, contains and getSize is that of IHashTable, and getStatistics
+ * reports the same counters as HashTable.
+ */
+public class IntHashTable {
+
+    private static final double MAX_LOAD = 0.75;  //Load factor to tell when to expand
+    private static final int EMPTY = 0; //Marks an empty slot
+
+    private int nelems;  //Number of element stored in the hash table, the value 0 included
+    private int mask; //Number of slots - 1. Number of slots is always a power of two.
+    private int[] keys; //Values, EMPTY for an empty slot
+    private boolean hasZero; //True if the value 0 is stored
+    private final int seed; //Per-table hash seed
+    private int expand; //Number of times that the table has been expanded
+    private long lookups; //Number of searches by insert/delete/contains
+    private long hits; //Number of searches that found the value
+    private long probes; //Number of slots compared by all searches
+    private long rehashNanos; //Total time spent in rehash
+    private long maxRehashNanos; //Longest single rehash
+
+    /**
+     * Constructor for hash table
+     * @param Initial size of the hash table
+     */
+    public IntHashTable(int size) throws IllegalArgumentException{
+        if (size <= 0 )
+            throw new IllegalArgumentException();
+        int capacity = Integer.highestOneBit(size);
+        keys = new int[(capacity < size) ? capacity << 1 : capacity];
+        mask = keys.length - 1;
+        seed = ThreadLocalRandom.current().nextInt();
+    }
+
+    /** Insert the value.
+     * @param value to insert
+     * @return true if item has been inserted, false if there already exists the same item.
+     */
+    public boolean insert(int value){
+        if (value == EMPTY){
+            recordLookup(hasZero, 1);
+            if (hasZero)
+                return false;
+            hasZero = true;
+            nelems++;
+            return true;
+        }
+        if (indexOf(value) >= 0)
+            return false;
+        if (nelems + 1 > MAX_LOAD * (mask + 1))
+            rehash((mask + 1) * 2);
+        place(value);
+        nelems++;
+        return true;
+    }
+
+    /** Delete the value.
+     * Later slots of the same cluster are shifted back into the gap, so no tombstones are needed.
+     * @param value to delete
+     * @return true if item has been deleted, false if there is no such item.
+     */
+    public boolean delete(int value){
+        if (value == EMPTY){
+            recordLookup(hasZero, 1);
+            if (!hasZero)
+                return false;
+            hasZero = false;
+            nelems--;
+            return true;
+        }
+        int i = indexOf(value);
+        if (i < 0)
+            return false;
+
+        // Backward shift
+        int j = i;
+        while (true){
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY)
+                break;
+            // Move j into the gap unless the gap lies before its home slot
+            if (((j - hashFunction(keys[j])) & mask) >= ((j - i) & mask)){
+                keys[i] = keys[j];
+                i = j;
+            }
+        }
+        keys[i] = EMPTY;
+        nelems--;
+        return true;
+    }
+
+    /** Determine if element exists in the table.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    public boolean contains(int value){
+        if (value == EMPTY){
+            recordLookup(hasZero, 1);
+            return hasZero;
+        }
+        return indexOf(value) >= 0;
+    }
+
+    /** Print out the hash table */
+    public void printTable() {
+        if (hasZero)
+            System.out.println("zero: 0");
+        for (int i = 0; i <= mask; i++){
+            System.out.print(i+": ");
+            if (keys[i] == EMPTY)
+                System.out.println();
+            else
+                System.out.println(keys[i]);
+        }
+    }
+
+    /** The number of elements currently store in the table.
+     * @return int the number of elements
+     */
+    public int getSize() {
+        return nelems;
+    }
+
+    /** Expand the table once so that it holds the given number of
+     * elements without going over the load factor.
+     * @param expectedSize number of elements the table should hold
+     */
+    public void ensureCapacity(int expectedSize){
+        int capacity = mask + 1;
+        while (capacity < (1 << 30) && expectedSize > MAX_LOAD * capacity)
+            capacity <<= 1;
+        if (capacity > mask + 1)
+            rehash(capacity);
+    }
+
+    /** Snapshot of the health counters of the table.
+     * A chain is a run of occupied slots, the longest probe sequence a
+     * lookup can take; chainLengths[0] counts the empty slots.
+     * @return the statistics
+     */
+    public HashTableStats getStatistics(){
+        int[] chainLengths = new int[8];
+        int longest = 0;
+        // Start after an empty slot so that no run wraps around the end
+        int start = 0;
+        while (keys[start] != EMPTY)
+            start++;
+        int run = 0;
+        for (int k = 1; k <= mask + 1; k++){
+            int i = (start + k) & mask;
+            if (keys[i] != EMPTY){
+                run++;
+                continue;
+            }
+            if (run >= chainLengths.length)
+                chainLengths = Arrays.copyOf(chainLengths, Math.max(run + 1, chainLengths.length * 2));
+            if (run > 0)
+                chainLengths[run]++;
+            chainLengths[0]++;
+            longest = Math.max(longest, run);
+            run = 0;
+        }
+        return new HashTableStats(nelems, mask + 1, lookups, hits, probes,
+                expand, rehashNanos, maxRehashNanos, Arrays.copyOf(chainLengths, longest + 1));
+    }
+
+    /** Zero the lookup and rehash timing counters. */
+    public void resetStatistics(){
+        lookups = 0;
+        hits = 0;
+        probes = 0;
+        rehashNanos = 0;
+        maxRehashNanos = 0;
+    }
+
+    /** Find the slot holding a value other than 0.
+     * @param value value to look for
+     * @return the slot index, -1 if no such value exists.
+     */
+    private int indexOf(int value){
+        int compared = 1;
+        for (int i = hashFunction(value); keys[i] != EMPTY; i = (i + 1) & mask, compared++){
+            if (keys[i] == value){
+                recordLookup(true, compared);
+                return i;
+            }
+        }
+        recordLookup(false, compared);
+        return -1;
+    }
+
+    /** Put a value other than 0 into the first free slot.
+     * @param value value to place
+     */
+    private void place(int value){
+        int i = hashFunction(value);
+        while (keys[i] != EMPTY)
+            i = (i + 1) & mask;
+        keys[i] = value;
+    }
+
+    /** Rehash into the given number of slots.
+     * @param capacity number of slots, a power of two
+     */
+    private void rehash(int capacity){
+        long start = System.nanoTime();
+        int[] oldKeys = keys;
+        keys = new int[capacity];
+        mask = capacity - 1;
+        for (int key : oldKeys){
+            if (key != EMPTY)
+                place(key);
+        }
+        expand++;
+        long elapsed = System.nanoTime() - start;
+        rehashNanos += elapsed;
+        maxRehashNanos = Math.max(maxRehashNanos, elapsed);
+    }
+
+    /** Count a lookup for getStatistics.
+     * @param found true if the value was found
+     * @param compared number of slots compared
+     */
+    private void recordLookup(boolean found, int compared){
+        lookups++;
+        probes += compared;
+        if (found)
+            hits++;
+    }
+
+    /** Hash function to assign a home slot to each value.
+     * @param value The input value
+     * @return home slot of the value
+     */
+    private int hashFunction(int value){
+        return StandardHashStrategy.finalizer(value ^ seed) & mask;
+    }
+
+    /** Getter method for testing
+     * @return number of slots
+     */
+    public int getBuckets(){
+        return mask + 1;
+    }
+
+    public static void main(String[] args){
+        IntHashTable tester = new IntHashTable(1);
+        // 0 is kept in a flag, since it marks an empty slot
+        int[] values = {0, 1, -1, 42, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int value : values)
+            tester.insert(value);
+        tester.printTable();
+        System.out.println("Size: " + tester.getSize() + ", contains 0: " + tester.contains(0)
+                + ", contains 7: " + tester.contains(7));
+        tester.delete(0);
+        tester.delete(42);
+        System.out.println("After deleting 0 and 42, size: " + tester.getSize() + ", contains 0: " + tester.contains(0)
+                + ", contains -1: " + tester.contains(-1));
+        System.out.println(tester.getStatistics());
+    }
+}
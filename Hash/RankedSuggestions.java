@@ -0,0 +1,122 @@
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+
+/** Keeps the k most frequent suggestions reported to it.
+ * <p>
+ * A min-heap of at most k entries holds the current best; its head is the
+ * k-th score that any further candidate has to beat. Suggestions with equal
+ * frequency keep the order in which they were found. A split suggestion
+ * "a b" scores the smaller frequency of its two words. One instance ranks
+ * the suggestions of one word.
+ */
+class RankedSuggestions {
+
+    private static class Ranked {
+        final String word;
+        final long score;
+        final int order; //Number of suggestions found before this one
+
+        Ranked(String word, long score, int order){
+            this.word = word;
+            this.score = score;
+            this.order = order;
+        }
+    }
+
+    /** Worst first: lower score, then found later. */
+    private static final Comparator<Ranked> WORST_FIRST = new Comparator<Ranked>(){
+        @Override
+        public int compare(Ranked a, Ranked b){
+            if (a.score != b.score)
+                return Long.compare(a.score, b.score);
+            return Integer.compare(b.order, a.order);
+        }
+    };
+
+    private final int k; //Number of suggestions to keep
+    private final WordFrequencies frequencies;
+    private final PriorityQueue<Ranked> heap;
+    private final HashSet<String> seen = new HashSet<String>(); //Suggestions already offered
+    private int found; //Number of distinct suggestions offered
+
+    /**
+     * Constructor
+     * @param k number of suggestions to keep, positive
+     * @param frequencies word counts used as scores
+     */
+    RankedSuggestions(int k, WordFrequencies frequencies){
+        this.k = k;
+        this.frequencies = frequencies;
+        this.heap = new PriorityQueue<Ranked>(k, WORST_FIRST);
+    }
+
+    /** Offer a suggestion; duplicates are ignored.
+     * @param suggestion dictionary word, or two words separated by a space
+     */
+    void offer(String suggestion){
+        if (!seen.add(suggestion))
+            return;
+        Ranked ranked = new Ranked(suggestion, score(suggestion), found++);
+        if (heap.size() < k)
+            heap.add(ranked);
+        else if (ranked.score > heap.peek().score){
+            heap.poll();
+            heap.add(ranked);
+        }
+    }
+
+    /** Check whether a candidate scoring at most bound could still make the top k.
+     * Ties with the k-th suggestion lose, since it was found first.
+     * @param bound highest score a candidate can have
+     * @return false if no such candidate can enter the top k
+     */
+    boolean canImprove(long bound){
+        return heap.size() < k || bound > heap.peek().score;
+    }
+
+    /** @return kept suggestions, most frequent first */
+    String[] toArray(){
+        Ranked[] ranked = heap.toArray(new Ranked[heap.size()]);
+        Arrays.sort(ranked, WORST_FIRST.reversed());
+        String[] result = new String[ranked.length];
+        for (int i = 0; i < ranked.length; i++)
+            result[i] = ranked[i].word;
+        return result;
+    }
+
+    /** Score of a suggestion.
+     * @param suggestion dictionary word, or two words separated by a space
+     * @return its frequency
+     */
+    private long score(String suggestion){
+        int space = suggestion.indexOf(' ');
+        if (space < 0)
+            return frequencies.get(suggestion);
+        return Math.min(frequencies.get(suggestion.substring(0, space)), frequencies.get(suggestion.substring(space + 1)));
+    }
+
+    public static void main(String[] args){
+        WordFrequencies frequencies = new WordFrequencies();
+        frequencies.add("the", 500);
+        frequencies.add("then", 80);
+        frequencies.add("than", 120);
+        frequencies.add("them", 80);
+        frequencies.add("he", 300);
+        RankedSuggestions tester = new RankedSuggestions(2, frequencies);
+        for (String suggestion : new String[]{"them", "then", "than", "the", "then", "t he"})
+            tester.offer(suggestion);
+        // The second "then" is ignored, and "t he" scores 0 for the unknown "t"
+        System.out.println("Top 2: " + Arrays.toString(tester.toArray()));
+        System.out.println("Can a candidate scoring 120 improve: " + tester.canImprove(120)
+                + ", scoring 121: " + tester.canImprove(121));
+
+        // Same ranking through SpellChecker.checkWord
+        SpellChecker spellChecker = new SpellChecker();
+        spellChecker.readDictionary(new StringReader("the then than them he"));
+        spellChecker.readFrequencies(new StringReader("the 500\nthen 80\nthan 120\nthem 80\nhe 300"));
+        System.out.println("checkWord(\"thn\", 3): " + Arrays.toString(spellChecker.checkWord("thn", 3)));
+    }
+}
@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Flight Recorder event committed by HashTable for every resize.
+ * Costs next to nothing unless a recording with this event enabled is running.
+ */
+@Name("HashTable.Rehash")
+@Label("HashTable Rehash")
+@Category("Data Structures")
+@Description("A HashTable moved its elements into a table with a different number of buckets")
+class RehashEvent extends Event {
+
+    @Label("Old Buckets")
+    int oldBuckets;
+
+    @Label("New Buckets")
+    int newBuckets;
+
+    @Label("Elements")
+    int elements;
+
+    @Label("Incremental")
+    @Description("Elements are moved by later operations, the event only covers allocating the new table")
+    boolean incremental;
+}
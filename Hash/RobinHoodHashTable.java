@@ -0,0 +1,370 @@
+import java.text.DecimalFormat;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class RobinHoodHashTable implements IHashTable {
+
+    //Open addressing hash table with Robin Hood displacement.
+    //Elements live directly in flat arrays; no per-entry node objects.
+
+    private static final double MAX_LOAD = 0.85;  //Load factor to tell when to expand
+
+    private int nelems;  //Number of element stored in the hash table
+    private int expand;  //Number of times that the table has been expanded
+    private int collision;  //Number of insertions that could not use their home slot since last expansion
+    private String statsFileName;     //FilePath for the file to write statistics upon every rehash
+    private boolean printStats = false;   //Boolean to decide whether to write statistics to file or not after rehashing
+    private int mask; // Number of slots - 1. Number of slots is always a power of two.
+    private String[] keys; //Array to store elements, null for an empty slot
+    private int[] hashes; //Cached hash of the element in the same slot
+
+    /**
+     * Constructor for hash table
+     * @param Initial size of the hash table
+     */
+    public RobinHoodHashTable(int size) throws IllegalArgumentException{
+        if (size <= 0 )
+            throw new IllegalArgumentException();
+        allocate(tableSizeFor(size));
+        nelems = 0;
+        expand = 1;
+        collision = 0;
+        printStats = false;
+    }
+
+    /**
+     * Constructor for hash table
+     * @param Initial size of the hash table
+     * @param File path to write statistics
+     */
+    public RobinHoodHashTable(int size, String fileName) throws IllegalArgumentException{
+        this(size);
+        printStats = true;
+        statsFileName = fileName;
+    }
+
+    /** Insert the value.
+     * @param value to insert
+     * @return true if item has been inserted, false if there already exists the same item.
+     */
+    @Override
+    public boolean insert(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hashFunction(value);
+        if (indexOf(value, hash) >= 0)
+            return false;
+
+        if (nelems + 1 > MAX_LOAD * (mask + 1))
+            rehash();
+        if (place(value, hash))
+            collision++;
+        nelems++;
+        return true;
+    }
+
+    /** Expand the table once so that it holds the given number of
+     * elements without going over the load factor.
+     * @param expectedSize number of elements the table should hold
+     */
+    @Override
+    public void ensureCapacity(int expectedSize){
+        int capacity = keys.length;
+        while (capacity < (1 << 30) && expectedSize > MAX_LOAD * capacity)
+            capacity <<= 1;
+        if (capacity > keys.length)
+            rehash(capacity);
+    }
+
+    /** Delete the value.
+     * Slots after the deleted one are shifted back by one until an element
+     * sitting in its home slot (or an empty slot) is reached, so no tombstones are needed.
+     * @param value to delete
+     * @return true if item has been deleted, false if there is no such item.
+     */
+    @Override
+    public boolean delete(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int i = indexOf(value, hashFunction(value));
+        if (i < 0)
+            return false;
+
+        // Backward shift
+        int next = (i + 1) & mask;
+        while (keys[next] != null && probeDistance(next) > 0){
+            keys[i] = keys[next];
+            hashes[i] = hashes[next];
+            i = next;
+            next = (next + 1) & mask;
+        }
+        keys[i] = null;
+        hashes[i] = 0;
+        nelems--;
+        return true;
+    }
+
+    /** Determine if element exists in the table.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        return indexOf(value, hashFunction(value)) >= 0;
+    }
+
+    /** Determine if the characters buf[off..off+len) form an element of the table.
+     * @param buf characters to look up
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        int hash = hashFunction(buf, off, len);
+        int i = hash & mask;
+        for (int dist = 0; keys[i] != null; dist++){
+            if (dist > probeDistance(i))
+                return false;
+            if (hashes[i] == hash && Chars.regionEquals(keys[i], buf, off, len))
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /** Print out the hash table */
+    @Override
+    public void printTable() {
+        for (int i = 0; i < keys.length; i++){
+            System.out.print(i+": ");
+            if (keys[i] == null)
+                System.out.println();
+            else
+                System.out.println(keys[i]);
+        }
+    }
+
+    /** The number of elements currently store in the table.
+     * @return int the number of elements
+     */
+    @Override
+    public int getSize() {
+        return nelems;
+    }
+
+    /** Iterate over a copy of the elements in slot order,
+     * so the table may be modified while iterating.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        List<String> words = new ArrayList<String>(nelems);
+        for (String key : keys){
+            if (key != null)
+                words.add(key);
+        }
+        return Collections.unmodifiableList(words).iterator();
+    }
+
+    /** Find the slot holding the value.
+     * The probe stops as soon as it passes a slot whose element is closer to
+     * its home than the value would be, because Robin Hood placement guarantees
+     * the value cannot be stored any further.
+     * @param value value to look for
+     * @param hash hash of the value
+     * @return the slot index, -1 if no such value exists.
+     */
+    private int indexOf(String value, int hash){
+        int i = hash & mask;
+        for (int dist = 0; keys[i] != null; dist++){
+            if (dist > probeDistance(i))
+                return -1;
+            if (hashes[i] == hash && keys[i].equals(value))
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /** Place a value known to be absent, displacing richer elements on the way.
+     * @param value value to place
+     * @param hash hash of the value
+     * @return true if the value did not land in its home slot
+     */
+    private boolean place(String value, int hash){
+        int i = hash & mask;
+        int dist = 0;
+        boolean displaced = false;
+        while (keys[i] != null){
+            int existing = probeDistance(i);
+            // Take the slot from an element that is closer to its home
+            if (existing < dist){
+                String k = keys[i];
+                int h = hashes[i];
+                keys[i] = value;
+                hashes[i] = hash;
+                value = k;
+                hash = h;
+                dist = existing;
+            }
+            displaced = true;
+            i = (i + 1) & mask;
+            dist++;
+        }
+        keys[i] = value;
+        hashes[i] = hash;
+        return displaced;
+    }
+
+    /** Distance of the element in the given slot from its home slot.
+     * @param i slot index
+     * @return number of slots between home and i
+     */
+    private int probeDistance(int i){
+        return (i - (hashes[i] & mask)) & mask;
+    }
+
+    /** Expand and rehash the items into the table
+     * when load factor goes over threshold. */
+    private void rehash(){
+        rehash(keys.length * 2);
+    }
+
+    /** Rehash the items into a table with the given number of slots.
+     * @param capacity number of slots, a power of two
+     */
+    private void rehash(int capacity){
+        if (printStats)
+            printStatistics();
+
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        expand++;
+
+        for (int i = 0; i < oldKeys.length; i++){
+            if (oldKeys[i] != null)
+                place(oldKeys[i], oldHashes[i]);
+        }
+        collision = 0;
+    }
+
+    /** Allocate empty arrays for the given number of slots.
+     * @param capacity number of slots, a power of two
+     */
+    private void allocate(int capacity){
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /** Round the requested size up to a power of two.
+     * @param size requested size
+     * @return smallest power of two not less than size
+     */
+    private static int tableSizeFor(int size){
+        int capacity = Integer.highestOneBit(size);
+        return (capacity < size) ? capacity << 1 : capacity;
+    }
+
+    /** Trim decimals 2 decimal places.
+     * @param number Number to get trimmed.
+     * @return Trimmed number as a string.
+     */
+    private static String trimDecimal(double number){
+        DecimalFormat df = new DecimalFormat("#.##");
+        return df.format(number);
+    }
+
+    /** Print the statistics after each expansion.
+     * Longest chain is reported as the longest probe sequence.
+     * Called from rehash only if printStats = true.
+     */
+    private void printStatistics(){
+        int longest_probe = 0;
+        for (int i = 0; i < keys.length; i++){
+            if (keys[i] != null && longest_probe < probeDistance(i) + 1)
+                longest_probe = probeDistance(i) + 1;
+        }
+
+        PrintWriter pw;
+        String formatted_loadFactor = trimDecimal((double)nelems / keys.length);
+        try{
+            pw = new PrintWriter(new FileOutputStream(statsFileName, true));
+            pw.print(expand);
+            pw.print(" resizes, load factor ");
+            pw.print(formatted_loadFactor + ", ");
+            pw.print(collision);
+            pw.print(" collisions, ");
+            pw.print(longest_probe);
+            pw.println(" longest chain");
+            pw.close();
+        }
+        catch (IOException e){
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /** Hash function to assign key to each element.
+     * The String hash code is mixed so that the low bits used for masking
+     * depend on every character.
+     * @param value The input String value
+     * @return Hash of the value; the home slot is hash & mask
+     */
+    private static int hashFunction(String value){
+        int h = value.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Hash function for characters of an array, equal to hashFunction of the String they form.
+     * @param buf characters to hash
+     * @param off index of the first character
+     * @param len number of characters
+     * @return Hash of the characters
+     */
+    private static int hashFunction(char[] buf, int off, int len){
+        int hashCode = 0;  // Same as String.hashCode
+        for (int i = off; i < off + len; i++)
+            hashCode = 31 * hashCode + buf[i];
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Getter method for testing
+     * @return number of slots
+     */
+    public int getBuckets(){
+        return keys.length;
+    }
+    /** Getter method for testing
+     * @return boolean printStats
+     */
+    public boolean getPrintStats(){
+        return printStats;
+    }
+
+    public static void main(String[] args){
+        RobinHoodHashTable tester = new RobinHoodHashTable(1);
+        for (int i = 0; i < 12; i++)
+            tester.insert("word" + i);
+        System.out.println("Slots: " + tester.getBuckets() + ", size: " + tester.getSize());
+        tester.printTable();
+
+        // Deleting shifts the following words back, so no tombstones are left behind
+        for (int i = 0; i < 12; i += 2)
+            tester.delete("word" + i);
+        boolean found = true;
+        for (int i = 1; i < 12; i += 2)
+            found &= tester.contains("word" + i);
+        System.out.println("Remaining words found after deletes: " + found + ", contains word0: " + tester.contains("word0"));
+        tester.printTable();
+    }
+}
@@ -1,9 +1,70 @@
 import java.io.*;
 import java.nio.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 public class SpellChecker {
-    private HashTable dictionary;
+    private IHashTable dictionary;
+    private double bloomFpp = 0; //False positive rate of the Bloom filter to build, 0 for none
+    private BloomFilter filter; //Bloom filter over the dictionary words, null if none
+    private final LongAdder probes = new LongAdder(); //Number of dictionary lookups asked for by checkWord
+    private final LongAdder probesAvoided = new LongAdder(); //Number of those lookups answered by the Bloom filter alone
+    private int indexDistance = 0; //Largest edit distance of the suggestion index to build, 0 for none
+    private SuggestionBackend indexBackend; //Kind of suggestion index to build
+    private SuggestionEngine suggestionIndex; //Precomputed suggestion index, null if none
+    private SuggestionCache cache; //Suggestions of recent misspellings, null if none
+    private WordFrequencies frequencies = new WordFrequencies(); //Word counts for checkWord(word, k)
+    private final EditCandidates.Probe probe = new EditCandidates.Probe(){ //Candidate lookups of checkWord
+        @Override
+        public boolean contains(char[] buf, int off, int len){
+            return inDictionary(buf, off, len);
+        }
+
+        @Override
+        public boolean mayHavePrefix(char[] buf, int off, int len){
+            return dictionary.mayHavePrefix(buf, off, len);
+        }
+    };
+
+    /** Kinds of suggestion index that suggest can use. */
+    public enum SuggestionBackend {
+        /** DeletionIndex: fastest queries, memory grows quickly with the distance */
+        DELETION_INDEX,
+        /** BKTree: one node per word, queries compare against a pruned part of the dictionary */
+        BK_TREE
+    }
+
+    private static final int BATCH_CHUNK = 256; //Words per task in checkAll
+
+    /** Outcome of checking one word in a batch. */
+    public static class Result {
+        private final String word;
+        private final String[] suggestions;
+
+        /**
+         * Constructor
+         * @param word checked word
+         * @param suggestions suggestions, null if the word is correct
+         */
+        public Result(String word, String[] suggestions){
+            this.word = word;
+            this.suggestions = suggestions;
+        }
+
+        /** @return checked word */
+        public String getWord(){
+            return word;
+        }
+
+        /** @return suggestions as returned by checkWord, null if the word is correct */
+        public String[] getSuggestions(){
+            return suggestions;
+        }
+    }
 
     /** Constructor with no argument 
      * Initializes HashTable instance
@@ -12,20 +73,27 @@ public class SpellChecker {
         dictionary = new HashTable(1);
     }
 
+    /** Constructor with the hash table to use as the dictionary
+     * @param dictionary empty IHashTable instance, e.g. RobinHoodHashTable, or
+     * TrieHashTable to let checkWord skip candidates no dictionary word starts with
+     */
+    public SpellChecker(IHashTable dictionary) throws NullPointerException{
+        if (dictionary == null)
+            throw new NullPointerException();
+        this.dictionary = dictionary;
+    }
+
     /** Loads the words in the file into the hash table dictionary of the SpellChecker.
      * This method can do anything reasonable for improperly formatted files.
      * @param dictFileReader Reader object for a dictionary file
      */
     public void readDictionary(Reader dictFileReader){
-        // Read words from dictFileReader into dictionary
-        Scanner sc;
+        // Read all words first so the dictionary is sized once
         try{
-            sc = new Scanner(dictFileReader);
-            while (sc.hasNext()){
-                String word = sc.next().toLowerCase();
-                dictionary.insert(word);
-            }
-            sc.close();
+            load(readWords(dictFileReader));
+        }
+        catch (IOException e){
+            System.out.println(e.getMessage());
         }
         catch (NoSuchElementException e){
             System.out.println(e.getMessage());
@@ -35,6 +103,292 @@ public class SpellChecker {
         }
     }
 
+    /** Loads the words in the file into the hash table dictionary of the SpellChecker.
+     * The file is memory-mapped and large files are parsed in parallel, see DictionaryLoader.
+     * @param dictFile dictionary file, UTF-8
+     * @throws IOException if the file cannot be read
+     */
+    public void readDictionary(File dictFile) throws IOException{
+        load(DictionaryLoader.readWords(dictFile));
+    }
+
+    /** Bulk insert words into the dictionary and rebuild what depends on it.
+     * The Bloom filter and the suggestion index must hold every dictionary
+     * word, not only the new ones, or they would miss the words of earlier loads.
+     * @param words lowercased words, duplicates allowed
+     */
+    private void load(List<String> words){
+        // An index built with the current settings only needs the words new to the dictionary
+        List<String> fresh = null;
+        if (indexDistance > 0 && suggestionIndex != null && suggestionIndex.getMaxDistance() == indexDistance
+                && (suggestionIndex instanceof BKTree) == (indexBackend == SuggestionBackend.BK_TREE)){
+            fresh = new ArrayList<String>();
+            for (String word : new LinkedHashSet<String>(words)){
+                if (!dictionary.contains(word))
+                    fresh.add(word);
+            }
+        }
+        dictionary.insertAll(words);
+        clearCache();
+        rebuildFilter();
+        rebuildIndex(fresh);
+    }
+
+    /** Build the Bloom filter, if enabled, again from every dictionary word.
+     * A Bloom filter cannot grow, so adding to the old one would raise its
+     * false positive rate past the one asked for.
+     */
+    private void rebuildFilter(){
+        if (bloomFpp <= 0)
+            return;
+        BloomFilter newFilter = new BloomFilter(dictionary.getSize(), bloomFpp);
+        for (String word : dictionary)
+            newFilter.add(word);
+        filter = newFilter;
+    }
+
+    /** Bring the suggestion index, if enabled, up to date with the dictionary.
+     * @param fresh words new to the dictionary if the current index only needs
+     * those, null to build the index again from every dictionary word
+     */
+    private void rebuildIndex(List<String> fresh){
+        if (indexDistance <= 0)
+            return;
+        if (fresh != null){
+            suggestionIndex.addAll(fresh);
+            return;
+        }
+        List<String> all = new ArrayList<String>(dictionary.getSize());
+        for (String word : dictionary)
+            all.add(word);
+        SuggestionEngine newIndex = newSuggestionEngine();
+        newIndex.addAll(all);
+        suggestionIndex = newIndex;
+    }
+
+    /** Loads word frequencies used to rank the suggestions of checkWord(word, k).
+     * Each line holds a word and its number of occurrences, separated by whitespace.
+     * Counts of words that appear more than once, e.g. in different case, are added up.
+     * Malformed lines are skipped. Words are not added to the dictionary.
+     * @param freqFileReader Reader object for a frequency file
+     */
+    public void readFrequencies(Reader freqFileReader){
+        WordFrequencies newFrequencies = new WordFrequencies();
+        try (BufferedReader reader = new BufferedReader(freqFileReader)){
+            String line;
+            while ((line = reader.readLine()) != null){
+                StringTokenizer tokens = new StringTokenizer(line);
+                if (tokens.countTokens() != 2)
+                    continue;
+                String word = tokens.nextToken().toLowerCase();
+                try{
+                    long count = Long.parseLong(tokens.nextToken());
+                    if (count >= 0)
+                        newFrequencies.add(word, count);
+                }
+                catch (NumberFormatException e){
+                    // Skip the line
+                }
+            }
+            frequencies = newFrequencies;
+        }
+        catch (IOException e){
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /** Replace a HashTable dictionary by its frozen copy, see HashTable.freeze.
+     * Lookups get faster and the dictionary becomes read-only, so readDictionary
+     * can no longer add words to it.
+     * @throws IllegalStateException if the dictionary is not a HashTable
+     */
+    public void freezeDictionary() throws IllegalStateException{
+        if (!(dictionary instanceof HashTable))
+            throw new IllegalStateException("Only a HashTable dictionary can be frozen");
+        dictionary = ((HashTable)dictionary).freeze();
+    }
+
+    /** Build a Bloom filter over the dictionary words in the next readDictionary or openSnapshot,
+     * so that checkWord rejects most misspelled candidates without probing the dictionary.
+     * @param falsePositiveRate fraction of absent words the filter lets through, between 0 and 1 exclusive
+     * @throws IllegalArgumentException if falsePositiveRate is out of range
+     */
+    public void enableBloomFilter(double falsePositiveRate) throws IllegalArgumentException{
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+            throw new IllegalArgumentException();
+        bloomFpp = falsePositiveRate;
+    }
+
+    /** Build a suggestion index over the dictionary words in the next readDictionary or openSnapshot,
+     * so that suggest finds words up to the given edit distance with a few index lookups.
+     * The index takes memory roughly proportional to the number of words times
+     * 7 choose maxDistance.
+     * @param maxDistance largest edit distance of a suggestion, 1 to 3
+     * @throws IllegalArgumentException if maxDistance is out of range
+     */
+    public void enableSuggestionIndex(int maxDistance) throws IllegalArgumentException{
+        enableSuggestionIndex(SuggestionBackend.DELETION_INDEX, maxDistance);
+    }
+
+    /** Build a suggestion index of the given kind over the dictionary words in
+     * the next readDictionary or openSnapshot, for suggest to use.
+     * @param backend kind of index
+     * @param maxDistance largest edit distance of a suggestion, 1 to 3
+     * @throws IllegalArgumentException if maxDistance is out of range
+     */
+    public void enableSuggestionIndex(SuggestionBackend backend, int maxDistance) throws IllegalArgumentException, NullPointerException{
+        if (backend == null)
+            throw new NullPointerException();
+        if (maxDistance < 1 || maxDistance > 3)
+            throw new IllegalArgumentException();
+        indexBackend = backend;
+        indexDistance = maxDistance;
+    }
+
+    /** Remember the suggestions checkWord gives for up to the given number of
+     * misspelled words, so that repeated typos are answered without generating candidates.
+     * The cache is cleared whenever readDictionary or openSnapshot changes the
+     * dictionary; call clearCache after changing the dictionary directly.
+     * @param maxEntries most misspelled words to remember
+     * @throws IllegalArgumentException if maxEntries is not positive
+     */
+    public void enableSuggestionCache(int maxEntries) throws IllegalArgumentException{
+        cache = new SuggestionCache(maxEntries);
+    }
+
+    /** Forget all cached suggestions. */
+    public void clearCache(){
+        if (cache != null)
+            cache.clear();
+    }
+
+    /** Create an empty suggestion index as configured by enableSuggestionIndex.
+     * @return the index
+     */
+    private SuggestionEngine newSuggestionEngine(){
+        if (indexBackend == SuggestionBackend.BK_TREE)
+            return new BKTree(indexDistance);
+        return new DeletionIndex(indexDistance);
+    }
+
+    /** Suggest corrections using the suggestion index.
+     * Unlike checkWord this finds words up to the index distance, not only one edit away,
+     * but does not suggest splitting the word in two.
+     * @param word to check
+     * @return suggestions, closest first; null if the word is in the dictionary
+     * @throws IllegalStateException if no suggestion index was built
+     */
+    public String[] suggest(String word) throws IllegalStateException{
+        if (suggestionIndex == null)
+            throw new IllegalStateException("No suggestion index, call enableSuggestionIndex before readDictionary");
+        if (inDictionary(word))
+            return null;
+        return suggestionIndex.suggest(word);
+    }
+
+    /** Getter method for statistics
+     * @return number of dictionary lookups asked for by checkWord
+     */
+    public long getProbes(){
+        return probes.sum();
+    }
+
+    /** Getter method for statistics
+     * @return number of lookups the Bloom filter answered without probing the dictionary
+     */
+    public long getProbesAvoided(){
+        return probesAvoided.sum();
+    }
+
+    /** Getter method for statistics
+     * @return number of misspelled words answered from the suggestion cache
+     */
+    public long getCacheHits(){
+        return (cache == null) ? 0 : cache.getHits();
+    }
+
+    /** Getter method for statistics
+     * @return number of misspelled words looked for in the suggestion cache, hits included
+     */
+    public long getCacheLookups(){
+        return (cache == null) ? 0 : cache.getHits() + cache.getMisses();
+    }
+
+    /** Getter method for testing
+     * @return the suggestion index suggest uses, null if none
+     */
+    SuggestionEngine getSuggestionIndex(){
+        return suggestionIndex;
+    }
+
+    /** Look a word up, asking the Bloom filter first if there is one.
+     * @param word word to look up
+     * @return true if the word is in the dictionary
+     */
+    private boolean inDictionary(String word){
+        probes.increment();
+        if (filter != null && !filter.mightContain(word)){
+            probesAvoided.increment();
+            return false;
+        }
+        return dictionary.contains(word);
+    }
+
+    /** Look up buf[off..off+len), asking the Bloom filter first if there is one.
+     * @param buf characters to look up
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if the characters form a dictionary word
+     */
+    private boolean inDictionary(char[] buf, int off, int len){
+        probes.increment();
+        if (filter != null && !filter.mightContain(buf, off, len)){
+            probesAvoided.increment();
+            return false;
+        }
+        return dictionary.contains(buf, off, len);
+    }
+
+    /** Read the lowercased words of a dictionary file.
+     * @param dictFileReader Reader object for a dictionary file
+     * @return words in file order, including duplicates
+     * @throws IOException if reading fails
+     */
+    private static List<String> readWords(Reader dictFileReader) throws IOException{
+        try{
+            return DictionaryLoader.readWords(dictFileReader);
+        }
+        finally{
+            dictFileReader.close();
+        }
+    }
+
+    /** Replace the dictionary with a snapshot file written by writeSnapshot.
+     * The file is memory-mapped and used as is, so this is fast for any dictionary size.
+     * The resulting dictionary is read-only. A Bloom filter and a suggestion
+     * index, if enabled, are built from the words of the snapshot.
+     * @param snapshotFile snapshot file
+     * @throws IOException if the file cannot be opened or is not a snapshot
+     */
+    public void openSnapshot(File snapshotFile) throws IOException{
+        dictionary = DictionarySnapshot.open(snapshotFile);
+        filter = null;
+        suggestionIndex = null;
+        clearCache();
+        rebuildFilter();
+        rebuildIndex(null);
+    }
+
+    /** Save the words of a dictionary file as a snapshot for openSnapshot.
+     * Words are lowercased the same way as in readDictionary.
+     * @param dictFileReader Reader object for a dictionary file
+     * @param snapshotFile file to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void writeSnapshot(Reader dictFileReader, File snapshotFile) throws IOException{
+        DictionarySnapshot.write(new LinkedHashSet<String>(readWords(dictFileReader)), snapshotFile);
+    }
+
     /** Check the input word.
      * If input word exists in the dictionary, returns null
      * @param word to check
@@ -48,230 +402,168 @@ public class SpellChecker {
         //		System.out.println("succesfully setup");
 
         // Correct input word
-        if (dictionary.contains(word)){
+        if (inDictionary(word)){
             //			System.out.println("correct word");
             return null;
         }
 
         // Give suggestions for incorrect input
         else{
-            //			System.out.println(word + "not a correct word. look for suggestions.");
-            LinkedList<String> suggestions = new LinkedList<String>();
-            String suggest_word = null;
-            //			System.out.println("successfully setup linkedlist.");
-
-            /* A wrong letter error*/
-            for (int i = 0 ; i < word.length(); i++){
-                //				System.out.println("looking for a wrong letter error");
-                String part1;
-                String part2;
-                if (i == 0){
-                    part1 = "";
-                    //					System.out.println("Substring 1 setup");
-
-                    if ((i+1) >= word.length()){
-                        part2 = "";
-                        //						System.out.println("Substring 2 setup");
-                    }
-                    else{
-                        part2 = word.substring(i+1);
-                        //						System.out.println("Substring 2 setup");
-                    }
-                }
-                else{
-                    part1 = word.substring(0, i);
-                    //					System.out.println("Substring 1 setup");
-
-                    if ((i+1) >= word.length()){
-                        part2 = "";
-                        //						System.out.println("Substring 2 setup");
-                    }
-                    else{
-                        part2 = word.substring(i+1);
-                        //						System.out.println("Substring 2 setup");
-                    }
-                }
-
-                for (char j = 'a'; j <= 'z'; j++){
-                    //					System.out.println("trying all possible alphabets");
-                    suggest_word = part1.concat(Character.toString(j)).concat(part2);
-                    //					System.out.println(suggest_word);
-
-                    //					System.out.println(dictionary.contains(suggest_word));
-                    if (dictionary.contains(suggest_word)){
-                        //						System.out.println("Found suggestion. Now adding to the suggestions list");
-                        if (!suggestions.contains(suggest_word))
-                            suggestions.add(suggest_word);
-                        //						System.out.println("A wrong letter suggestion for "+word+": "+suggest_word);
-                    }	
-                }
-            }
-
-            /* An inserted letter error*/
-            if (word.length() > 1){
-                for (int i = 0 ; i < word.length(); i++){
-                    //					System.out.println("looking for an inserted letter error");
-                    String part1, part2;
-                    if (i == 0){
-                        part1 = "";
-                        //						System.out.println("Setup substring 1");
-
-                        if ((i+1) >= word.length()){
-                            part2 = "";
-                            //							System.out.println("Setup substring 2");
-                        }
-                        else{
-                            part2 = word.substring(i+1);
-                            //							System.out.println("Setup substring 2");
-                        }
-                    }
-                    else{
-                        part1 = word.substring(0, i);
-                        //						System.out.println("Setup substring 1");
-
-                        if ((i+1) >= word.length()){
-                            part2 = "";
-                            //							System.out.println("Setup substring 2");
-                        }
-                        else{
-                            part2 = word.substring(i+1);
-                            //							System.out.println("Setup substring 2");
-                        }
-                    }
-
-                    suggest_word = part1.concat(part2);
-                    if (dictionary.contains(suggest_word)){
-                        //					System.out.println("Found suggestion. Now adding to the suggestions list");
-                        if (!suggestions.contains(suggest_word))
-                            suggestions.add(suggest_word);
-                        //					System.out.println("An inserted letter suggestion for "+word+": "+suggest_word);
-                    }
-                }
-            }
-
-            /* A deleted letter error*/
-            // Missing first letter
-            for (char ch = 'a'; ch <= 'z'; ch ++){
-                //				System.out.println("looking for a deleted letter error, first letter missing");
-                suggest_word = Character.toString(ch).concat(word);
-                //				System.out.println("suggest_word formed successfully.");
-
-                //				System.out.println(dictionary.contains(suggest_word));
-                if (dictionary.contains(suggest_word)){
-                    //					System.out.println("Found suggestion. Now adding to the suggestions list");
-                    if (!suggestions.contains(suggest_word))
-                        suggestions.add(suggest_word);
-                    //					System.out.println("A deleted letter suggestion 1.missing first for "+word+": "+suggest_word);
-                }
-            }
-
-            // Missing middle letter
-            for (int i = 1; i < word.length(); i++){
-                //				System.out.println("looking for a deleted letter error, middle letter missing");
-                String part1 = word.substring(0, i);
-                String part2 = word.substring(i);
-                //				System.out.println("Substrings all set");
-
-                for (char ch = 'a'; ch <= 'z'; ch++){
-                    suggest_word = part1.concat(String.valueOf(ch)).concat(part2);
-                    //					System.out.println(suggest_word);
-                    //					System.out.println(dictionary.contains(suggest_word));
-                    if (dictionary.contains(suggest_word)){
-                        //						System.out.println("Found suggestion. Now adding to the suggestions list");
-                        //						System.out.println(suggest_word);
-                        if (!suggestions.contains(suggest_word))
-                            suggestions.add(suggest_word);
-                        //						System.out.println("A deleted letter suggestion 3.missing middle for "+word+": "+suggest_word);
-                    }
-                }
-            }
-
-            // Missing last letter
-            for (char ch = 'a'; ch <= 'z'; ch ++){
-                //				System.out.println("looking for a deleted letter error, last letter missing");
-                suggest_word = word.concat(Character.toString(ch));
-                //				System.out.println("suggest_word formed successfully.");
-
-                //				System.out.println(dictionary.contains(suggest_word));
-                if (dictionary.contains(suggest_word)){
-                    //					System.out.println("Found suggestion. Now adding to the suggestions list");
-                    if (!suggestions.contains(suggest_word))
-                        suggestions.add(suggest_word);
-                    //					System.out.println("A deleted letter suggestion 2.missing last for "+word+": "+suggest_word);
-                }
+            SuggestionCache cache = this.cache;
+            long generation = 0;
+            if (cache != null){
+                String[] cached = cache.get(word);
+                if (cached != null)
+                    return cached.clone();
+                generation = cache.getGeneration();
             }
+            // Candidates are built in one char buffer; only dictionary hits become Strings
+            Set<String> suggestions = new LinkedHashSet<String>();
+            new EditCandidates(word, probe, suggestions::add).generateAll();
+            String[] result = suggestions.toArray(new String[suggestions.size()]);
+            if (cache != null)
+                cache.put(word, result.clone(), generation);
+            return result;
+        }
+    }
 
-            /* A pair of adjacent transposed letters*/
-            for (int i = 0 ; i < word.length()-1; i++){
-                //				System.out.println("looking for transposed letter error");
-                String part1, part2;
-                if (i == 0){
-                    part1 = "";
+    /** Check the input word and give its k most frequent suggestions, see readFrequencies.
+     * Suggestions are the same as those of checkWord(word). Edit classes are tried
+     * in order of the highest frequency among dictionary words of the lengths they
+     * produce, and generation stops once that frequency cannot beat the k-th suggestion
+     * found so far. Words without a frequency count as 0; ties keep the order found.
+     * @param word to check
+     * @param k most suggestions to return
+     * @return up to k suggestions, most frequent first; null if the word is in the dictionary
+     * @throws IllegalArgumentException if k is not positive
+     */
+    public String[] checkWord(String word, int k) throws IllegalArgumentException{
+        if (k <= 0)
+            throw new IllegalArgumentException();
+        if (inDictionary(word))
+            return null;
 
-                    if ((i+2) >= word.length()){
-                        part2 = "";
-                    }
-                    else{
-                        part2 = word.substring(i+2);
-                    }
-                }
-                else{
-                    part1 = word.substring(0, i);
+        WordFrequencies frequencies = this.frequencies;
+        RankedSuggestions top = new RankedSuggestions(k, frequencies);
+        EditCandidates candidates = new EditCandidates(word, probe, top::offer);
+        int n = word.length();
+        long splitBound = -1;
+        for (int i = 1; i < n; i++)
+            splitBound = Math.max(splitBound, Math.min(frequencies.maxForLength(i), frequencies.maxForLength(n - i)));
+
+        // Edit classes of checkWord and the best score each can reach, -1 if it produces nothing
+        Runnable[] classes = {candidates::wrongLetters, candidates::insertedLetters,
+                candidates::deletedLetters, candidates::transpositions, candidates::spaces};
+        long[] bounds = {frequencies.maxForLength(n), (n > 1) ? frequencies.maxForLength(n - 1) : -1,
+                frequencies.maxForLength(n + 1), (n > 1) ? frequencies.maxForLength(n) : -1, splitBound};
+        Integer[] order = {0, 1, 2, 3, 4};
+        Arrays.sort(order, (a, b) -> Long.compare(bounds[b], bounds[a]));
+        for (int c : order){
+            if (bounds[c] < 0 || !top.canImprove(bounds[c]))
+                break;
+            classes[c].run();
+        }
+        return top.toArray();
+    }
 
-                    if ((i+2) >= word.length()){
-                        part2 = "";
+    /** Check every word of a file in parallel, see checkAll.
+     * Words are separated by whitespace and lowercased.
+     * @param inputFile file to check
+     * @param results receives one Result per word, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public void checkFile(File inputFile, Consumer<Result> results) throws IOException{
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile))){
+            Iterator<String> words = new Iterator<String>(){
+                private StringTokenizer line = new StringTokenizer("");
+
+                @Override
+                public boolean hasNext(){
+                    try{
+                        while (!line.hasMoreTokens()){
+                            String next = reader.readLine();
+                            if (next == null)
+                                return false;
+                            line = new StringTokenizer(next);
+                        }
+                        return true;
                     }
-                    else{
-                        part2 = word.substring(i+2);
+                    catch (IOException e){
+                        throw new UncheckedIOException(e);
                     }
                 }
-                //				System.out.println("Substrings all set");
-
-                suggest_word = part1.concat(String.valueOf(word.charAt(i+1))).concat(String.valueOf(word.charAt(i))).concat(part2);
-
-                //				System.out.println(dictionary.contains(suggest_word));
-                if (dictionary.contains(suggest_word)){
-                    //					System.out.println("Found suggestion. Now adding to the suggestions list");
-                    if (!suggestions.contains(suggest_word))
-                        suggestions.add(suggest_word);
-                    //					System.out.println("A pair of adjacent transposed letters suggestion for "+word+": "+suggest_word);
-                }
-            }
 
-            /* Every pair of strings that can be made by inserting a space into the word*/
-            for (int i = 1 ; i < word.length(); i++){
-                //				System.out.println("looking for a space omission error");
-                String part1 = word.substring(0, i);
-                String part2 = word.substring(i);
-                //				System.out.println("Substrings all set");
-
-                if (dictionary.contains(part1) && dictionary.contains(part2)){
-                    if (!suggestions.contains(part1+" "+part2))
-                        suggestions.add(part1+" "+part2);
-                    //					System.out.println("Found suggestion. Now adding to the suggestions list");
+                @Override
+                public String next(){
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return line.nextToken().toLowerCase();
                 }
-            }
+            };
+            checkAll(words, results);
+        }
+        catch (UncheckedIOException e){
+            throw e.getCause();
+        }
+    }
 
-            // Generate String[] from LinkedList of suggestions
-            String[] final_suggestions = null;
-            try{
-                final_suggestions = suggestions.toArray(new String[suggestions.size()]);
-                //				System.out.println("Successfully converted to array");
-            }
-            catch (ArrayStoreException e){
-                System.out.println("Error in converting to array");
-            }
-            catch (NullPointerException e){
-                System.out.println("Error in converting to array");
-            }
+    /** Check a sequence of words in parallel on the common fork-join pool.
+     * Words are taken in chunks, each chunk is checked by one worker, and the
+     * results are handed over in input order on the calling thread. At most a
+     * few chunks per worker are in flight, so memory stays bounded for inputs
+     * of any length. The dictionary must not be modified meanwhile.
+     * @param words words to check
+     * @param results receives one Result per word, in input order
+     */
+    public void checkAll(Iterator<String> words, Consumer<Result> results){
+        // contains must not move buckets while several threads read the table
+        if (dictionary instanceof HashTable)
+            ((HashTable)dictionary).completeRehash();
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int maxInFlight = 2 * pool.getParallelism() + 1;
+        ArrayDeque<CompletableFuture<Result[]>> inFlight = new ArrayDeque<CompletableFuture<Result[]>>();
+        while (words.hasNext()){
+            String[] chunk = new String[BATCH_CHUNK];
+            int n = 0;
+            while (n < BATCH_CHUNK && words.hasNext())
+                chunk[n++] = words.next();
+            final String[] batch = (n == BATCH_CHUNK) ? chunk : Arrays.copyOf(chunk, n);
+            inFlight.add(CompletableFuture.supplyAsync(() -> checkChunk(batch), pool));
+            if (inFlight.size() >= maxInFlight)
+                emit(inFlight.poll(), results);
+        }
+        while (!inFlight.isEmpty())
+            emit(inFlight.poll(), results);
+    }
 
-            //			System.out.print("Final suggestions for "+word+": ");
-            //			for (int i = 0; i < final_suggestions.length; i++)
-            //				System.out.print(final_suggestions[i]+", ");
-            //			System.out.println();
+    /** Check a chunk of words.
+     * @param batch words to check
+     * @return results in the same order
+     */
+    private Result[] checkChunk(String[] batch){
+        Result[] checked = new Result[batch.length];
+        for (int i = 0; i < batch.length; i++)
+            checked[i] = new Result(batch[i], checkWord(batch[i]));
+        return checked;
+    }
 
-            return final_suggestions;
+    /** Wait for a chunk and hand its results over.
+     * @param chunk chunk being checked
+     * @param results receives the results
+     */
+    private static void emit(CompletableFuture<Result[]> chunk, Consumer<Result> results){
+        Result[] checked;
+        try{
+            checked = chunk.join();
+        }
+        catch (CompletionException e){
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            throw e;
         }
+        for (Result result : checked)
+            results.accept(result);
     }
 
     public static void main(String[] args){
@@ -279,29 +571,32 @@ public class SpellChecker {
 //		String path = "../resource/asnlib/";
         File dictionary = new File("longdict.txt");
         try {
-            Reader reader = new FileReader( dictionary );
-            spellChecker.readDictionary( reader ); // Loads the dictionary.
+            // Optional snapshot file written by writeSnapshot
+            if (args.length > 0){
+                dictionary = new File(args[0]);
+                spellChecker.openSnapshot( dictionary );
+            }
+            else{
+                spellChecker.readDictionary( dictionary ); // Loads the dictionary.
+            }
 //	        spellChecker.dictionary.printTable();
-        } catch ( FileNotFoundException e ) {
+        } catch ( IOException e ) {
             System.err.println( "Failed to open " + dictionary );
             e.printStackTrace(); // Error getting the dictionary.
             System.exit( 1 );
         }
         File inputFile = new File("input.txt");
         try {
-            Scanner input = new Scanner( inputFile ); // Reads list of words
-            while ( input.hasNext() ) {               // from input file.
-                // Converts to lowercase.
-                String word = input.next().toLowerCase(); // Gets suggestions.
-//	            System.out.println("Checking word");
-                String[] suggestion = spellChecker.checkWord( word );
+            // Checks the words in parallel, prints suggestions in file order
+            spellChecker.checkFile( inputFile, result -> {
+                String[] suggestion = result.getSuggestions();
                 if (suggestion != null){
                     for (int i = 0; i < suggestion.length; i++){
                         System.out.print(suggestion[i]+" ");
                         System.out.println();
                     }
                 }
-            }
+            });
         }
         catch (IOException e){
         }
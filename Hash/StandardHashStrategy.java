@@ -0,0 +1,128 @@
+/** Built-in hash functions for HashTable.
+ * Compare them on a word list by building one table per strategy with a
+ * statistics file and looking at the collisions and longest chains.
+ */
+public enum StandardHashStrategy implements HashStrategy {
+
+    /** Multiply-by-53 polynomial over the characters, the default of HashTable.
+     * Unlike the hash HashTable used before strategies, it is not reduced
+     * modulo the number of buckets after every character: the int is left
+     * to overflow and HashTable reduces it once. Words long enough to
+     * overflow therefore land in other buckets than they used to.
+     * Not seeded: the seed only adds seed * 53^length, so strings of the
+     * same length that collide collide under every seed. */
+    POLYNOMIAL {
+        @Override
+        public int hash(String value, int seed){
+            int hashKey = seed;
+            for (int i = 0; i < value.length(); i++)
+                hashKey = hashKey * 53 + value.charAt(i);
+            return hashKey;
+        }
+
+        @Override
+        public int hash(char[] buf, int off, int len, int seed){
+            int hashKey = seed;
+            for (int i = off; i < off + len; i++)
+                hashKey = hashKey * 53 + buf[i];
+            return hashKey;
+        }
+    },
+
+    /** FNV-1a over the characters, seeded through the offset basis. */
+    FNV1A {
+        @Override
+        public int hash(String value, int seed){
+            int hashKey = 0x811c9dc5 ^ seed;
+            for (int i = 0; i < value.length(); i++){
+                hashKey ^= value.charAt(i);
+                hashKey *= 0x01000193;
+            }
+            return hashKey;
+        }
+
+        @Override
+        public int hash(char[] buf, int off, int len, int seed){
+            int hashKey = 0x811c9dc5 ^ seed;
+            for (int i = off; i < off + len; i++){
+                hashKey ^= buf[i];
+                hashKey *= 0x01000193;
+            }
+            return hashKey;
+        }
+    },
+
+    /** MurmurHash3 (x86, 32 bit) over the characters, two characters per block, seeded. */
+    MURMUR3 {
+        @Override
+        public int hash(String value, int seed){
+            int length = value.length();
+            int hashKey = seed;
+            int i = 0;
+            for (; i + 1 < length; i += 2){
+                int block = value.charAt(i) | (value.charAt(i + 1) << 16);
+                hashKey ^= mixBlock(block);
+                hashKey = Integer.rotateLeft(hashKey, 13) * 5 + 0xe6546b64;
+            }
+            if (i < length)
+                hashKey ^= mixBlock(value.charAt(i));
+            return finalizer(hashKey ^ (length * 2));
+        }
+
+        @Override
+        public int hash(char[] buf, int off, int len, int seed){
+            int end = off + len;
+            int hashKey = seed;
+            int i = off;
+            for (; i + 1 < end; i += 2){
+                int block = buf[i] | (buf[i + 1] << 16);
+                hashKey ^= mixBlock(block);
+                hashKey = Integer.rotateLeft(hashKey, 13) * 5 + 0xe6546b64;
+            }
+            if (i < end)
+                hashKey ^= mixBlock(buf[i]);
+            return finalizer(hashKey ^ (len * 2));
+        }
+    },
+
+    /** String.hashCode, which the String caches, followed by the Murmur3 finalizer.
+     * Not seeded: the seed is mixed in after String.hashCode, so strings with
+     * the same hashCode, such as "Aa" and "BB", collide under every seed. */
+    STRING_HASHCODE {
+        @Override
+        public int hash(String value, int seed){
+            return finalizer(value.hashCode() ^ seed);
+        }
+
+        @Override
+        public int hash(char[] buf, int off, int len, int seed){
+            // Same as String.hashCode
+            int hashCode = 0;
+            for (int i = off; i < off + len; i++)
+                hashCode = 31 * hashCode + buf[i];
+            return finalizer(hashCode ^ seed);
+        }
+    };
+
+    /** Scramble one Murmur3 block.
+     * @param block four bytes of input
+     * @return mixed block
+     */
+    private static int mixBlock(int block){
+        block *= 0xcc9e2d51;
+        block = Integer.rotateLeft(block, 15);
+        return block * 0x1b873593;
+    }
+
+    /** Murmur3 fmix32: make every input bit affect every output bit.
+     * @param hashKey hash to mix
+     * @return mixed hash
+     */
+    static int finalizer(int hashKey){
+        hashKey ^= hashKey >>> 16;
+        hashKey *= 0x85ebca6b;
+        hashKey ^= hashKey >>> 13;
+        hashKey *= 0xc2b2ae35;
+        return hashKey ^ (hashKey >>> 16);
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.*;
+import java.util.*;
+
+/** Compares the suggestion backends with SpellChecker.checkWord.
+ * <p>
+ * For each word length, misspells random dictionary words with one random
+ * edit and reports per query how many dictionary probes checkWord makes,
+ * how many index lookups and verifications DeletionIndex makes, and how
+ * many words BKTree compares against, together with the time per query.
+ * The indexes are the ones SpellChecker builds and are timed through
+ * SpellChecker.suggest.
+ * <p>
+ * Usage: java SuggestionBenchmark [dictionary file] [queries per length] [max distance]
+ */
+public class SuggestionBenchmark {
+
+    public static void main(String[] args) throws IOException{
+        File dictFile = new File((args.length > 0) ? args[0] : "longdict.txt");
+        int queries = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+        int maxDistance = (args.length > 2) ? Integer.parseInt(args[2]) : 1;
+
+        // Load
+        List<String> words = new ArrayList<String>(new LinkedHashSet<String>(DictionaryLoader.readWords(dictFile)));
+        SpellChecker spellChecker = new SpellChecker();
+        spellChecker.readDictionary(dictFile);
+        SpellChecker deletionChecker = new SpellChecker();
+        deletionChecker.enableSuggestionIndex(SpellChecker.SuggestionBackend.DELETION_INDEX, maxDistance);
+        deletionChecker.readDictionary(dictFile);
+        DeletionIndex deletionIndex = (DeletionIndex)deletionChecker.getSuggestionIndex();
+        SpellChecker bkChecker = new SpellChecker();
+        bkChecker.enableSuggestionIndex(SpellChecker.SuggestionBackend.BK_TREE, maxDistance);
+        bkChecker.readDictionary(dictFile);
+        BKTree bkTree = (BKTree)bkChecker.getSuggestionIndex();
+
+        Map<Integer, List<String>> byLength = new TreeMap<Integer, List<String>>();
+        for (String word : words){
+            List<String> list = byLength.get(word.length());
+            if (list == null){
+                list = new ArrayList<String>();
+                byLength.put(word.length(), list);
+            }
+            list.add(word);
+        }
+
+        System.out.println("length  checkWord probes/us  deletion lookups+verified/us  bktree compared/us");
+        Random random = new Random(42);
+        for (Map.Entry<Integer, List<String>> e : byLength.entrySet()){
+            if (e.getKey() < 2)
+                continue;
+            String[] sample = new String[queries];
+            for (int q = 0; q < queries; q++)
+                sample[q] = misspell(e.getValue().get(random.nextInt(e.getValue().size())), random);
+
+            long probes = spellChecker.getProbes();
+            long start = System.nanoTime();
+            for (String word : sample)
+                spellChecker.checkWord(word);
+            long checkNanos = System.nanoTime() - start;
+            probes = spellChecker.getProbes() - probes;
+
+            long lookups = deletionIndex.getLookups();
+            long verified = deletionIndex.getVerified();
+            start = System.nanoTime();
+            for (String word : sample)
+                deletionChecker.suggest(word);
+            long deletionNanos = System.nanoTime() - start;
+            lookups = deletionIndex.getLookups() - lookups;
+            verified = deletionIndex.getVerified() - verified;
+
+            long compared = bkTree.getComparisons();
+            start = System.nanoTime();
+            for (String word : sample)
+                bkChecker.suggest(word);
+            long bkNanos = System.nanoTime() - start;
+            compared = bkTree.getComparisons() - compared;
+
+            System.out.printf("%6d  %9.1f /%7.1f  %12.1f+%-8.1f /%7.1f  %14.1f /%7.1f%n", e.getKey(),
+                    (double)probes / queries, checkNanos / 1000.0 / queries,
+                    (double)lookups / queries, (double)verified / queries, deletionNanos / 1000.0 / queries,
+                    (double)compared / queries, bkNanos / 1000.0 / queries);
+        }
+    }
+
+    /** Apply one random edit: replace, delete, insert or swap a letter.
+     * @param word word to misspell
+     * @param random random source
+     * @return the misspelled word
+     */
+    private static String misspell(String word, Random random){
+        int i = random.nextInt(word.length());
+        char ch = (char)('a' + random.nextInt(26));
+        switch (random.nextInt(4)){
+            case 0: return word.substring(0, i) + ch + word.substring(i + 1);
+            case 1: return word.substring(0, i) + word.substring(i + 1);
+            case 2: return word.substring(0, i) + ch + word.substring(i);
+            default:
+                if (i + 1 >= word.length())
+                    return word.substring(0, i) + ch;
+                return word.substring(0, i) + word.charAt(i + 1) + word.charAt(i) + word.substring(i + 2);
+        }
+    }
+}
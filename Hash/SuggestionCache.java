@@ -0,0 +1,145 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Bounded cache from misspelled word to its suggestions, with segmented LRU eviction.
+ * <p>
+ * New entries go into a probation segment; an entry hit again moves to a
+ * protected segment of 80% of the capacity. When the protected segment is
+ * full its least recently used entry drops back to probation, and entries
+ * leave the cache only from the probation end. A burst of one-off typos
+ * therefore cannot push out the typos that keep coming back.
+ * <p>
+ * All methods are synchronized. clear starts a new generation, and put
+ * drops values computed in an older one, so a result computed against
+ * the old dictionary never lands in the cache after it was cleared.
+ */
+public class SuggestionCache {
+
+    private final int capacity; //Most entries held
+    private final int protectedCapacity; //Most entries in the protected segment
+    private final LinkedHashMap<String, String[]> probation = new LinkedHashMap<String, String[]>(16, 0.75f, true);
+    private final LinkedHashMap<String, String[]> protectedSegment = new LinkedHashMap<String, String[]>(16, 0.75f, true);
+    private long generation; //Bumped by clear
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructor for an empty cache
+     * @param capacity most entries held
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public SuggestionCache(int capacity) throws IllegalArgumentException{
+        if (capacity <= 0)
+            throw new IllegalArgumentException();
+        this.capacity = capacity;
+        this.protectedCapacity = (int)(capacity * 0.8);
+    }
+
+    /** Look a word up.
+     * @param word misspelled word
+     * @return the cached suggestions, null if not cached. The array is shared, do not modify it.
+     */
+    public synchronized String[] get(String word){
+        String[] suggestions = protectedSegment.get(word);
+        if (suggestions == null){
+            suggestions = probation.remove(word);
+            if (suggestions == null){
+                misses++;
+                return null;
+            }
+            // Second hit, promote
+            protectedSegment.put(word, suggestions);
+            if (protectedSegment.size() > protectedCapacity){
+                Map.Entry<String, String[]> eldest = removeEldest(protectedSegment);
+                probation.put(eldest.getKey(), eldest.getValue());
+            }
+        }
+        hits++;
+        return suggestions;
+    }
+
+    /** Cache the suggestions of a word, evicting if full.
+     * @param word misspelled word
+     * @param suggestions its suggestions, must not be modified afterwards
+     * @param generation value of getGeneration before the suggestions were computed
+     */
+    public synchronized void put(String word, String[] suggestions, long generation){
+        if (generation != this.generation || protectedSegment.containsKey(word))
+            return;
+        probation.put(word, suggestions);
+        while (probation.size() + protectedSegment.size() > capacity && !probation.isEmpty())
+            removeEldest(probation);
+    }
+
+    /** Drop every entry, e.g. because the dictionary changed. Statistics are kept. */
+    public synchronized void clear(){
+        probation.clear();
+        protectedSegment.clear();
+        generation++;
+    }
+
+    /** Getter method for put
+     * @return current generation
+     */
+    public synchronized long getGeneration(){
+        return generation;
+    }
+
+    /** Getter method for statistics
+     * @return number of get calls that found the word
+     */
+    public synchronized long getHits(){
+        return hits;
+    }
+
+    /** Getter method for statistics
+     * @return number of get calls that did not find the word
+     */
+    public synchronized long getMisses(){
+        return misses;
+    }
+
+    /** Getter method for statistics
+     * @return fraction of get calls that found the word, 0 if there were none
+     */
+    public synchronized double getHitRate(){
+        return (hits + misses == 0) ? 0 : (double)hits / (hits + misses);
+    }
+
+    /** Getter method for testing
+     * @return number of entries held
+     */
+    public synchronized int getSize(){
+        return probation.size() + protectedSegment.size();
+    }
+
+    /** Remove the least recently used entry of a segment.
+     * @param segment non-empty segment
+     * @return the removed entry
+     */
+    private static Map.Entry<String, String[]> removeEldest(LinkedHashMap<String, String[]> segment){
+        Iterator<Map.Entry<String, String[]>> it = segment.entrySet().iterator();
+        Map.Entry<String, String[]> eldest = it.next();
+        it.remove();
+        return eldest;
+    }
+
+    public static void main(String[] args){
+        SuggestionCache tester = new SuggestionCache(10);
+        long generation = tester.getGeneration();
+        tester.put("teh", new String[]{"the"}, generation);
+        tester.get("teh"); // A second hit moves it to the protected segment
+        // A burst of one-off typos only cycles through probation
+        for (int i = 0; i < 100; i++)
+            tester.put("typo" + i, new String[]{"word" + i}, generation);
+        System.out.println("teh kept: " + Arrays.toString(tester.get("teh")) + ", typo0 kept: " + (tester.get("typo0") != null));
+        System.out.println("Size: " + tester.getSize() + ", hit rate: " + tester.getHitRate());
+
+        // Values computed before clear are dropped
+        tester.clear();
+        tester.put("teh", new String[]{"the"}, generation);
+        System.out.println("Stale value stored after clear: " + (tester.get("teh") != null));
+    }
+}
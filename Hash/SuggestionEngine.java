@@ -0,0 +1,38 @@
+import java.util.Collection;
+
+/** Index over the dictionary words that finds the words close to a misspelling.
+ * SpellChecker builds one while reading the dictionary, see
+ * SpellChecker.enableSuggestionIndex.
+ */
+public interface SuggestionEngine {
+
+	/** Add a dictionary word
+	 * 
+	 * @param word word to add, added at most once
+	 */
+	void add(String word);
+	
+	/** Add every word of the collection
+	 * 
+	 * @param words distinct dictionary words
+	 */
+	default void addAll(Collection<String> words) {
+		for (String word : words)
+			add(word);
+	}
+	
+	/** Find the dictionary words within the maximum distance of the query,
+	 * measured as Damerau-Levenshtein distance
+	 * 
+	 * @param word query word
+	 * @return the words, closest first and alphabetically within a distance;
+	 *         includes the word itself if it was added
+	 */
+	String[] suggest(String word);
+	
+	/** Largest edit distance of a suggestion
+	 * 
+	 * @return the maximum distance
+	 */
+	int getMaxDistance();
+}
@@ -0,0 +1,50 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/** GroupMatcher on plain longs, eight control bytes per long
+ * ("SIMD within a register"). Used when the Vector API is not available.
+ */
+final class SwarGroupMatcher implements GroupMatcher {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LSB = 0x0101010101010101L; //Lowest bit of every byte
+    private static final long MSB = 0x8080808080808080L; //Highest bit of every byte
+
+    @Override
+    public long match(byte[] ctrl, int off, byte h2){
+        long pattern = LSB * (h2 & 0xff);
+        return compress(zeroBytes((long)LONGS.get(ctrl, off) ^ pattern))
+            | compress(zeroBytes((long)LONGS.get(ctrl, off + 8) ^ pattern)) << 8;
+    }
+
+    @Override
+    public long matchEmpty(byte[] ctrl, int off){
+        // EMPTY is the only control byte with bit 7 set and bit 6 clear
+        long lo = (long)LONGS.get(ctrl, off);
+        long hi = (long)LONGS.get(ctrl, off + 8);
+        return compress(lo & ~(lo << 1) & MSB) | compress(hi & ~(hi << 1) & MSB) << 8;
+    }
+
+    @Override
+    public long matchFree(byte[] ctrl, int off){
+        return compress((long)LONGS.get(ctrl, off) & MSB) | compress((long)LONGS.get(ctrl, off + 8) & MSB) << 8;
+    }
+
+    /** Mark the zero bytes of a long. A byte just above a zero byte may be
+     * marked too, which is why match allows false positives.
+     * @param x bytes to test
+     * @return bit 7 of each byte set where x likely has a zero byte
+     */
+    private static long zeroBytes(long x){
+        return (x - LSB) & ~x & MSB;
+    }
+
+    /** Gather bit 7 of each byte into the low eight bits.
+     * @param bits long with only bit 7 of some bytes set
+     * @return bit i set if byte i had bit 7 set
+     */
+    private static long compress(long bits){
+        return ((bits >>> 7) * 0x0102040810204080L) >>> 56;
+    }
+}
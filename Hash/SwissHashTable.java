@@ -0,0 +1,363 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Open addressing hash table in the style of SwissTable.
+ * <p>
+ * Slots come in groups of 16. Next to the slots is one control byte per
+ * slot: EMPTY, DELETED, or the low 7 bits of the hash of the word in the
+ * slot. A lookup picks a group from the rest of the hash and checks all 16
+ * control bytes at once: only slots whose byte matches are compared, and
+ * a group with an empty slot ends the search. Most misses are therefore
+ * answered from 16 bytes of metadata without looking at a single word.
+ * <p>
+ * The group scan uses plain long arithmetic, eight control bytes per long.
+ * With -Dhashtable.simd=true, or the constructor with a vectorized flag,
+ * it uses the Vector API instead when the jdk.incubator.vector module is
+ * present, see VectorGroupMatcher in HashVector. The scalar scan is the default because
+ * the incubating API was slower on the JDK 17 runs of SwissTableBenchmark.
+ */
+public class SwissHashTable implements IHashTable {
+
+    static final byte EMPTY = (byte)0x80; //Control byte of a never used slot
+    static final byte DELETED = (byte)0xfe; //Control byte of a slot whose word was deleted
+    private static final int GROUP = GroupMatcher.GROUP;
+    private static final double MAX_LOAD = 0.875; //Used and deleted slots per slot before a rehash
+    //Group scan used by default: vectorized if set with -Dhashtable.simd=true and available
+    private static final GroupMatcher DEFAULT_MATCHER = loadMatcher(Boolean.getBoolean("hashtable.simd"));
+
+    private int nelems;  //Number of element stored in the hash table
+    private int groupMask; //Number of groups - 1. Number of groups is always a power of two.
+    private byte[] ctrl; //Control byte of each slot
+    private String[] keys; //Words, null for an empty or deleted slot
+    private int[] hashes; //Cached hash of the word in the same slot
+    private int growthLeft; //Words that can still go into EMPTY slots before a rehash
+    private final int seed; //Per-table hash seed
+    private final GroupMatcher matcher; //Group scan
+
+    /**
+     * Constructor for hash table
+     * @param Initial number of elements
+     */
+    public SwissHashTable(int size) throws IllegalArgumentException{
+        this(size, DEFAULT_MATCHER);
+    }
+
+    /**
+     * Constructor for hash table
+     * @param Initial number of elements
+     * @param vectorized true to scan groups with the Vector API if available, false for the scalar scan
+     */
+    public SwissHashTable(int size, boolean vectorized) throws IllegalArgumentException{
+        this(size, loadMatcher(vectorized));
+    }
+
+    private SwissHashTable(int size, GroupMatcher matcher) throws IllegalArgumentException{
+        if (size <= 0 )
+            throw new IllegalArgumentException();
+        this.matcher = matcher;
+        allocate(groupsFor(size));
+        seed = ThreadLocalRandom.current().nextInt();
+    }
+
+    /** Insert the value.
+     * @param value to insert
+     * @return true if item has been inserted, false if there already exists the same item.
+     */
+    @Override
+    public boolean insert(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int hash = hashFunction(value);
+        if (indexOf(value, hash) >= 0)
+            return false;
+        int i = freeSlot(hash);
+        if (growthLeft == 0 && ctrl[i] == EMPTY){
+            // Grow, or just clear out deleted slots if they are many
+            rehash((nelems + 1 > MAX_LOAD * capacity() / 2) ? (groupMask + 1) * 2 : groupMask + 1);
+            i = freeSlot(hash);
+        }
+        if (ctrl[i] == EMPTY)
+            growthLeft--;
+        ctrl[i] = h2(hash);
+        keys[i] = value;
+        hashes[i] = hash;
+        nelems++;
+        return true;
+    }
+
+    /** Delete the value.
+     * The slot becomes EMPTY again if its group still has an empty slot,
+     * since no search has then gone past the group; otherwise DELETED.
+     * @param value to delete
+     * @return true if item has been deleted, false if there is no such item.
+     */
+    @Override
+    public boolean delete(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        int i = indexOf(value, hashFunction(value));
+        if (i < 0)
+            return false;
+        if (matcher.matchEmpty(ctrl, i & -GROUP) != 0){
+            ctrl[i] = EMPTY;
+            growthLeft++;
+        }
+        else
+            ctrl[i] = DELETED;
+        keys[i] = null;
+        nelems--;
+        return true;
+    }
+
+    /** Determine if element exists in the table.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        return indexOf(value, hashFunction(value)) >= 0;
+    }
+
+    /** Determine if the characters buf[off..off+len) form an element of the table.
+     * @param buf characters to look up
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        int hash = StandardHashStrategy.MURMUR3.hash(buf, off, len, seed);
+        byte h2 = h2(hash);
+        int group = hash >>> 7 & groupMask;
+        for (int step = 1; ; step++){
+            int base = group * GROUP;
+            for (long m = matcher.match(ctrl, base, h2); m != 0; m &= m - 1){
+                int i = base + Long.numberOfTrailingZeros(m);
+                if (hashes[i] == hash && keys[i] != null && Chars.regionEquals(keys[i], buf, off, len))
+                    return true;
+            }
+            if (matcher.matchEmpty(ctrl, base) != 0)
+                return false;
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /** Print out the hash table */
+    @Override
+    public void printTable() {
+        for (int i = 0; i < capacity(); i++){
+            System.out.print(i+": ");
+            if (keys[i] == null)
+                System.out.println();
+            else
+                System.out.println(keys[i]);
+        }
+    }
+
+    /** The number of elements currently store in the table.
+     * @return int the number of elements
+     */
+    @Override
+    public int getSize() {
+        return nelems;
+    }
+
+    /** Iterate over a copy of the elements in slot order,
+     * so the table may be modified while iterating.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        List<String> words = new ArrayList<String>(nelems);
+        for (String key : keys){
+            if (key != null)
+                words.add(key);
+        }
+        return Collections.unmodifiableList(words).iterator();
+    }
+
+    /** Grow the table once so that it holds the given number of
+     * elements without going over the load factor.
+     * @param expectedSize number of elements the table should hold
+     */
+    @Override
+    public void ensureCapacity(int expectedSize){
+        int groups = groupsFor(expectedSize);
+        if (groups > groupMask + 1)
+            rehash(groups);
+    }
+
+    /** Find the slot holding the value.
+     * Groups are visited in triangular order, which reaches every group.
+     * @param value value to look for
+     * @param hash hash of the value
+     * @return the slot index, -1 if no such value exists.
+     */
+    private int indexOf(String value, int hash){
+        byte h2 = h2(hash);
+        int group = hash >>> 7 & groupMask;
+        for (int step = 1; ; step++){
+            int base = group * GROUP;
+            for (long m = matcher.match(ctrl, base, h2); m != 0; m &= m - 1){
+                int i = base + Long.numberOfTrailingZeros(m);
+                if (hashes[i] == hash && value.equals(keys[i]))
+                    return i;
+            }
+            if (matcher.matchEmpty(ctrl, base) != 0)
+                return -1;
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /** Find the first empty or deleted slot on the probe sequence of a hash.
+     * @param hash hash of the word to place
+     * @return slot index
+     */
+    private int freeSlot(int hash){
+        int group = hash >>> 7 & groupMask;
+        for (int step = 1; ; step++){
+            int base = group * GROUP;
+            long m = matcher.matchFree(ctrl, base);
+            if (m != 0)
+                return base + Long.numberOfTrailingZeros(m);
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /** Rehash into the given number of groups, dropping deleted slots.
+     * @param groups number of groups, a power of two
+     */
+    private void rehash(int groups){
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        allocate(groups);
+        for (int j = 0; j < oldKeys.length; j++){
+            if (oldKeys[j] != null){
+                int i = freeSlot(oldHashes[j]);
+                ctrl[i] = h2(oldHashes[j]);
+                keys[i] = oldKeys[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+        growthLeft -= nelems;
+    }
+
+    /** Allocate empty groups.
+     * @param groups number of groups, a power of two
+     */
+    private void allocate(int groups){
+        ctrl = new byte[groups * GROUP];
+        Arrays.fill(ctrl, EMPTY);
+        keys = new String[groups * GROUP];
+        hashes = new int[groups * GROUP];
+        groupMask = groups - 1;
+        growthLeft = (int)(MAX_LOAD * capacity());
+    }
+
+    /** Number of groups that holds the given number of elements under MAX_LOAD.
+     * @param size number of elements
+     * @return a power of two
+     */
+    private static int groupsFor(int size){
+        int groups = 1;
+        while (groups < (1 << 26) && size > MAX_LOAD * groups * GROUP)
+            groups <<= 1;
+        return groups;
+    }
+
+    /** @return number of slots */
+    private int capacity(){
+        return (groupMask + 1) * GROUP;
+    }
+
+    /** Control byte of a word.
+     * @param hash hash of the word
+     * @return its low 7 bits
+     */
+    private static byte h2(int hash){
+        return (byte)(hash & 0x7f);
+    }
+
+    /** Hash function to assign key to each element.
+     * @param value The input String value
+     * @return Integer hash of the value; the low 7 bits go to the control byte, the rest picks the group
+     */
+    private int hashFunction(String value){
+        return StandardHashStrategy.MURMUR3.hash(value, seed);
+    }
+
+    /** Pick the group scan.
+     * @param vectorized true to try the Vector API
+     * @return VectorGroupMatcher if wanted and its module is present, SwarGroupMatcher otherwise
+     */
+    private static GroupMatcher loadMatcher(boolean vectorized){
+        if (vectorized){
+            try{
+                return (GroupMatcher)Class.forName("VectorGroupMatcher").getDeclaredConstructor().newInstance();
+            }
+            catch (ReflectiveOperationException | LinkageError e){
+                // Module or class missing, fall back
+            }
+        }
+        return new SwarGroupMatcher();
+    }
+
+    /** Getter method for testing
+     * @return true if groups are scanned with the Vector API
+     */
+    public boolean isVectorized(){
+        return !(matcher instanceof SwarGroupMatcher);
+    }
+
+    /** Getter method for testing
+     * @return number of slots
+     */
+    public int getBuckets(){
+        return capacity();
+    }
+
+    /** Getter method for testing
+     * @return number of DELETED slots
+     */
+    public int getDeletedSlots(){
+        int deleted = 0;
+        for (byte c : ctrl){
+            if (c == DELETED)
+                deleted++;
+        }
+        return deleted;
+    }
+
+    public static void main(String[] args){
+        SwissHashTable tester = new SwissHashTable(100);
+        int slots = tester.getBuckets();
+        // Fill to the load limit so most groups have no empty slot left
+        int words = 0;
+        while (words < MAX_LOAD * slots)
+            tester.insert("word" + words++);
+        System.out.println("Words: " + words + ", slots: " + slots + ", vectorized: " + tester.isVectorized());
+
+        // Deletes in full groups leave DELETED so that searches keep probing past them
+        for (int i = 0; i < words; i += 2)
+            tester.delete("word" + i);
+        boolean found = true;
+        for (int i = 1; i < words; i += 2)
+            found &= tester.contains("word" + i);
+        System.out.println("Deleted slots: " + tester.getDeletedSlots() + ", remaining words found: " + found);
+
+        // Inserts reuse deleted slots until the empty ones run out; the rehash then drops the rest
+        int more = 0;
+        while (tester.getDeletedSlots() > 0)
+            tester.insert("more" + more++);
+        System.out.println("Deleted slots gone after " + more + " inserts, slots: " + tester.getBuckets()
+                + ", size: " + tester.getSize());
+    }
+}
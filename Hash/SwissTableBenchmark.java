@@ -0,0 +1,79 @@
+import java.io.*;
+import java.util.*;
+
+/** Compares SwissHashTable, with and without the Vector API, against HashTable.
+ * <p>
+ * Loads the dictionary into each table, then times contains on dictionary
+ * words (hits), on words with a letter appended (misses), and checkWord on
+ * misspelled dictionary words, which is mostly misses.
+ * <p>
+ * Usage: java --add-modules jdk.incubator.vector SwissTableBenchmark [dictionary file] [lookups]
+ * with HashVector/VectorGroupMatcher compiled onto the class path for the simd rows.
+ */
+public class SwissTableBenchmark {
+
+    public static void main(String[] args) throws IOException{
+        File dictFile = new File((args.length > 0) ? args[0] : "longdict.txt");
+        int lookups = (args.length > 1) ? Integer.parseInt(args[1]) : 1000000;
+        List<String> words = DictionaryLoader.readWords(dictFile);
+
+        Random random = new Random(42);
+        String[] hits = new String[lookups];
+        String[] misses = new String[lookups];
+        for (int i = 0; i < lookups; i++){
+            hits[i] = words.get(random.nextInt(words.size()));
+            misses[i] = words.get(random.nextInt(words.size())) + (char)('a' + random.nextInt(26));
+        }
+        String[] typos = new String[Math.max(1, lookups / 1000)];
+        for (int i = 0; i < typos.length; i++){
+            String word = words.get(random.nextInt(words.size()));
+            typos[i] = (word.length() > 1) ? word.substring(1) : word + "q";
+        }
+
+        System.out.println("table              hit ns  miss ns  checkWord us");
+        for (int round = 0; round < 3; round++){
+            run("HashTable", new HashTable(1), words, hits, misses, typos);
+            run("SwissHashTable", new SwissHashTable(1, false), words, hits, misses, typos);
+            SwissHashTable vectorized = new SwissHashTable(1, true);
+            if (vectorized.isVectorized())
+                run("SwissHashTable simd", vectorized, words, hits, misses, typos);
+            else if (round == 0)
+                System.out.println("Vector API not available, compile HashVector and run with --add-modules jdk.incubator.vector");
+        }
+    }
+
+    /** Time one table and print a line.
+     * @param name table name
+     * @param table empty table
+     * @param words dictionary words
+     * @param hits words to look up that are in the dictionary
+     * @param misses words to look up that are likely not
+     * @param typos misspelled words for checkWord
+     */
+    private static void run(String name, IHashTable table, List<String> words,
+            String[] hits, String[] misses, String[] typos){
+        SpellChecker spellChecker = new SpellChecker(table);
+        spellChecker.readDictionary(new StringReader(String.join("\n", words)));
+
+        int found = 0;
+        long start = System.nanoTime();
+        for (String word : hits)
+            if (table.contains(word))
+                found++;
+        long hitNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (String word : misses)
+            if (table.contains(word))
+                found++;
+        long missNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (String word : typos)
+            if (spellChecker.checkWord(word) != null)
+                found++;
+        long checkNanos = System.nanoTime() - start;
+
+        System.out.printf("%-18s %7.1f  %7.1f  %12.1f   (%d)%n", name,
+                (double)hitNanos / hits.length, (double)missNanos / misses.length,
+                checkNanos / 1000.0 / typos.length, found);
+    }
+}
@@ -0,0 +1,330 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/** Dictionary stored as a ternary search trie in flat arrays.
+ * <p>
+ * Each node holds one character and three child links: lo and hi to nodes
+ * with a smaller or larger character at the same position, eq to the next
+ * position. A node is four array slots rather than an object, and words
+ * sharing a prefix share its nodes. Besides the IHashTable operations the
+ * trie answers prefix queries: keysWithPrefix lists words in sorted order
+ * and mayHavePrefix lets SpellChecker skip candidates no word starts with.
+ * <p>
+ * delete only unmarks the word; its nodes are kept and reused if it is
+ * inserted again.
+ */
+public class TrieHashTable implements IHashTable {
+
+    private static final int NIL = 0; //Node 0 is never used, so 0 means no node
+
+    private int nelems;  //Number of element stored in the trie
+    private int nodes = 1; //Number of nodes in use, including node 0
+    private char[] chars; //Character of each node
+    private int[] lo; //Child with a smaller character
+    private int[] eq; //Child for the next character
+    private int[] hi; //Child with a larger character
+    private boolean[] ends; //True if the path to the node spells a word
+    private int root = NIL;
+    private boolean hasEmpty; //True if the empty word is stored
+
+    /**
+     * Constructor for the trie
+     * @param Initial number of nodes
+     */
+    public TrieHashTable(int size) throws IllegalArgumentException{
+        if (size <= 0 )
+            throw new IllegalArgumentException();
+        allocate(size + 1);
+    }
+
+    /** Insert the value.
+     * @param value to insert
+     * @return true if item has been inserted, false if there already exists the same item.
+     */
+    @Override
+    public boolean insert(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        if (value.isEmpty()){
+            if (hasEmpty)
+                return false;
+            hasEmpty = true;
+            nelems++;
+            return true;
+        }
+        if (root == NIL)
+            root = newNode(value.charAt(0));
+        int node = root;
+        int i = 0;
+        while (true){
+            char ch = value.charAt(i);
+            if (ch < chars[node]){
+                if (lo[node] == NIL){
+                    // Not lo[node] = newNode(ch), newNode may replace lo
+                    int child = newNode(ch);
+                    lo[node] = child;
+                }
+                node = lo[node];
+            }
+            else if (ch > chars[node]){
+                if (hi[node] == NIL){
+                    int child = newNode(ch);
+                    hi[node] = child;
+                }
+                node = hi[node];
+            }
+            else if (++i < value.length()){
+                if (eq[node] == NIL){
+                    int child = newNode(value.charAt(i));
+                    eq[node] = child;
+                }
+                node = eq[node];
+            }
+            else{
+                if (ends[node])
+                    return false;
+                ends[node] = true;
+                nelems++;
+                return true;
+            }
+        }
+    }
+
+    /** Delete the value.
+     * @param value to delete
+     * @return true if item has been deleted, false if there is no such item.
+     */
+    @Override
+    public boolean delete(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        if (value.isEmpty()){
+            if (!hasEmpty)
+                return false;
+            hasEmpty = false;
+            nelems--;
+            return true;
+        }
+        int node = find(value.toCharArray(), 0, value.length());
+        if (node == NIL || !ends[node])
+            return false;
+        ends[node] = false;
+        nelems--;
+        return true;
+    }
+
+    /** Determine if element exists in the trie.
+     * @param value to look for
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(String value) throws NullPointerException{
+        if (value == null)
+            throw new NullPointerException();
+        if (value.isEmpty())
+            return hasEmpty;
+        int node = root;
+        int i = 0;
+        while (node != NIL){
+            char ch = value.charAt(i);
+            if (ch < chars[node])
+                node = lo[node];
+            else if (ch > chars[node])
+                node = hi[node];
+            else if (++i < value.length())
+                node = eq[node];
+            else
+                return ends[node];
+        }
+        return false;
+    }
+
+    /** Determine if the characters buf[off..off+len) form an element of the trie.
+     * @param buf characters to look for
+     * @param off index of the first character
+     * @param len number of characters
+     * @return true if exists, false if not.
+     */
+    @Override
+    public boolean contains(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        if (len == 0)
+            return hasEmpty;
+        int node = find(buf, off, len);
+        return node != NIL && ends[node];
+    }
+
+    /** Check if some word may start with the characters buf[off..off+len).
+     * @param buf characters of the prefix
+     * @param off index of the first character
+     * @param len number of characters
+     * @return false if no word starts with the prefix
+     */
+    @Override
+    public boolean mayHavePrefix(char[] buf, int off, int len) throws NullPointerException{
+        if (buf == null)
+            throw new NullPointerException();
+        if (len == 0)
+            return nelems > 0;
+        return find(buf, off, len) != NIL;
+    }
+
+    /** List the words that start with a prefix, in sorted order.
+     * @param prefix prefix of the words, may be empty
+     * @param limit most words to return
+     * @return up to limit words
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public List<String> keysWithPrefix(String prefix, int limit) throws NullPointerException, IllegalArgumentException{
+        if (prefix == null)
+            throw new NullPointerException();
+        if (limit < 0)
+            throw new IllegalArgumentException();
+        List<String> keys = new ArrayList<String>();
+        if (limit == 0)
+            return keys;
+        StringBuilder path = new StringBuilder(prefix);
+        if (prefix.isEmpty()){
+            if (hasEmpty)
+                keys.add("");
+            collect(root, path, keys, limit);
+            return keys;
+        }
+        int node = find(prefix.toCharArray(), 0, prefix.length());
+        if (node == NIL)
+            return keys;
+        if (ends[node])
+            keys.add(prefix);
+        collect(eq[node], path, keys, limit);
+        return keys;
+    }
+
+    /** Print out the trie, one word per line in sorted order */
+    @Override
+    public void printTable() {
+        for (String key : keysWithPrefix("", Integer.MAX_VALUE))
+            System.out.println(key);
+    }
+
+    /** The number of elements currently store in the trie.
+     * @return int the number of elements
+     */
+    @Override
+    public int getSize() {
+        return nelems;
+    }
+
+    /** Iterate over a copy of the words in sorted order,
+     * so the trie may be modified while iterating.
+     * @return iterator over the elements
+     */
+    @Override
+    public Iterator<String> iterator(){
+        return Collections.unmodifiableList(keysWithPrefix("", Integer.MAX_VALUE)).iterator();
+    }
+
+    /** Getter method for testing
+     * @return number of nodes in use
+     */
+    public int getNodes(){
+        return nodes - 1;
+    }
+
+    /** Find the node of the last character of buf[off..off+len).
+     * @param buf characters to look for, len &gt; 0
+     * @param off index of the first character
+     * @param len number of characters
+     * @return the node, NIL if no word starts with the characters
+     */
+    private int find(char[] buf, int off, int len){
+        int end = off + len;
+        int node = root;
+        int i = off;
+        while (node != NIL){
+            char ch = buf[i];
+            if (ch < chars[node])
+                node = lo[node];
+            else if (ch > chars[node])
+                node = hi[node];
+            else if (++i < end)
+                node = eq[node];
+            else
+                return node;
+        }
+        return NIL;
+    }
+
+    /** Add the words of a subtrie to keys in sorted order.
+     * @param node root of the subtrie
+     * @param path characters leading to the subtrie, restored on return
+     * @param keys receives the words
+     * @param limit most words keys may hold
+     */
+    private void collect(int node, StringBuilder path, List<String> keys, int limit){
+        // Walk the hi links iteratively, they can form long chains
+        while (node != NIL && keys.size() < limit){
+            collect(lo[node], path, keys, limit);
+            if (keys.size() >= limit)
+                return;
+            path.append(chars[node]);
+            if (ends[node])
+                keys.add(path.toString());
+            collect(eq[node], path, keys, limit);
+            path.setLength(path.length() - 1);
+            node = hi[node];
+        }
+    }
+
+    /** Create a node.
+     * @param ch character of the node
+     * @return index of the node
+     */
+    private int newNode(char ch){
+        if (nodes == chars.length)
+            allocate(chars.length * 2);
+        chars[nodes] = ch;
+        return nodes++;
+    }
+
+    /** Resize the node arrays.
+     * @param capacity number of nodes, including node 0
+     */
+    private void allocate(int capacity){
+        if (chars == null){
+            chars = new char[capacity];
+            lo = new int[capacity];
+            eq = new int[capacity];
+            hi = new int[capacity];
+            ends = new boolean[capacity];
+            return;
+        }
+        chars = Arrays.copyOf(chars, capacity);
+        lo = Arrays.copyOf(lo, capacity);
+        eq = Arrays.copyOf(eq, capacity);
+        hi = Arrays.copyOf(hi, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+    }
+
+    public static void main(String[] args){
+        TrieHashTable tester = new TrieHashTable(1);
+        String[] words = {"car", "card", "care", "careful", "cat", "dog", ""};
+        for (String word : words)
+            tester.insert(word);
+        tester.printTable();
+        System.out.println("Size: " + tester.getSize() + ", nodes: " + tester.getNodes());
+        System.out.println("Words starting with car: " + tester.keysWithPrefix("car", Integer.MAX_VALUE));
+        System.out.println("First 2 words starting with ca: " + tester.keysWithPrefix("ca", 2));
+        char[] buf = "cow".toCharArray();
+        System.out.println("Some word starts with co: " + tester.mayHavePrefix(buf, 0, 2)
+                + ", with c: " + tester.mayHavePrefix(buf, 0, 1));
+
+        // Deleting a word keeps the longer words that pass through it
+        tester.delete("car");
+        System.out.println("After deleting car, contains car: " + tester.contains("car")
+                + ", contains card: " + tester.contains("card"));
+    }
+}
@@ -0,0 +1,57 @@
+import java.nio.ByteBuffer;
+
+/** Helpers to work with UTF-8 encoded words without decoding them into Strings. */
+final class Utf8 {
+
+    private Utf8(){
+    }
+
+    /** Compare a word against UTF-8 bytes in a buffer.
+     * The word is encoded on the fly, one character at a time.
+     * @param value word to compare
+     * @param buf buffer holding the encoded word, read with absolute gets
+     * @param off index of the first byte
+     * @param len number of bytes
+     * @return true if the bytes are exactly the UTF-8 encoding of the word
+     */
+    static boolean equals(CharSequence value, ByteBuffer buf, int off, int len){
+        int end = off + len;
+        int pos = off;
+        int length = value.length();
+        for (int i = 0; i < length; i++){
+            int c = value.charAt(i);
+            if (c < 0x80){
+                if (pos >= end || buf.get(pos++) != (byte)c)
+                    return false;
+                continue;
+            }
+            if (Character.isHighSurrogate((char)c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1)))
+                c = Character.toCodePoint((char)c, value.charAt(++i));
+            else if (Character.isSurrogate((char)c))
+                c = '?'; // String.getBytes replaces unpaired surrogates
+            int n = (c < 0x80) ? 1 : (c < 0x800) ? 2 : (c < 0x10000) ? 3 : 4;
+            if (pos + n > end)
+                return false;
+            for (int k = n - 1; k >= 0; k--){
+                int b = (n == 1) ? c : (k == n - 1) ? leadByte(c, n) : (0x80 | ((c >> (6 * k)) & 0x3f));
+                if (buf.get(pos++) != (byte)b)
+                    return false;
+            }
+        }
+        return pos == end;
+    }
+
+    /** First byte of a multi-byte UTF-8 sequence.
+     * @param c code point
+     * @param n length of the sequence, 2 to 4
+     * @return the lead byte
+     */
+    private static int leadByte(int c, int n){
+        switch (n){
+            case 2: return 0xc0 | (c >> 6);
+            case 3: return 0xe0 | (c >> 12);
+            default: return 0xf0 | (c >> 18);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/** How often each word occurs, for ranking suggestions.
+ * <p>
+ * Besides the count of each word it keeps the largest count of each word
+ * length, which bounds the score of every candidate an edit class can
+ * produce before any of them is generated.
+ */
+class WordFrequencies {
+
+    private final HashMap<String, Long> counts = new HashMap<String, Long>();
+    private long[] maxByLength = new long[32]; //Largest count of a word of each length
+
+    /** Add occurrences of a word.
+     * @param word lowercased word
+     * @param count number of occurrences, not negative
+     */
+    void add(String word, long count){
+        Long old = counts.get(word);
+        long total = (old == null) ? count : old + count;
+        counts.put(word, total);
+        int len = word.length();
+        if (len >= maxByLength.length)
+            maxByLength = Arrays.copyOf(maxByLength, Math.max(len + 1, maxByLength.length * 2));
+        if (total > maxByLength[len])
+            maxByLength[len] = total;
+    }
+
+    /** @return number of occurrences of the word, 0 if unknown */
+    long get(String word){
+        Long count = counts.get(word);
+        return (count == null) ? 0 : count;
+    }
+
+    /** @return largest number of occurrences of a word of the given length, 0 if none */
+    long maxForLength(int len){
+        return (len >= 0 && len < maxByLength.length) ? maxByLength[len] : 0;
+    }
+
+    /** @return number of words with a count */
+    int size(){
+        return counts.size();
+    }
+}
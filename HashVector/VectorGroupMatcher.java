@@ -0,0 +1,31 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/** GroupMatcher on 128-bit vectors of the incubating Vector API.
+ * <p>
+ * Needs --add-modules jdk.incubator.vector at compile and run time, so
+ * it lives outside Hash and is compiled on its own against the Hash classes:
+ * javac --add-modules jdk.incubator.vector -cp &lt;Hash classes&gt; HashVector/VectorGroupMatcher.java
+ * SwissHashTable loads this class by name and falls back to
+ * SwarGroupMatcher when the class or the module is missing.
+ */
+final class VectorGroupMatcher implements GroupMatcher {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_128;
+
+    @Override
+    public long match(byte[] ctrl, int off, byte h2){
+        return ByteVector.fromArray(SPECIES, ctrl, off).eq(h2).toLong();
+    }
+
+    @Override
+    public long matchEmpty(byte[] ctrl, int off){
+        return ByteVector.fromArray(SPECIES, ctrl, off).eq(SwissHashTable.EMPTY).toLong();
+    }
+
+    @Override
+    public long matchFree(byte[] ctrl, int off){
+        return ByteVector.fromArray(SPECIES, ctrl, off).compare(VectorOperators.LT, (byte)0).toLong();
+    }
+}